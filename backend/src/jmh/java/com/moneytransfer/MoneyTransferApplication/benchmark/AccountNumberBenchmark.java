@@ -0,0 +1,32 @@
+package com.moneytransfer.MoneyTransferApplication.benchmark;
+
+import com.moneytransfer.MoneyTransferApplication.service.AccountNumberGenerator;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+// Numéro de compte attribué à l'inscription (AuthService.register)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountNumberBenchmark {
+
+    // Plages réservées en mémoire : mesure l'attribution seule, sans la base
+    private final AccountNumberGenerator generator = new AccountNumberGenerator() {
+        private long nextBlock = 1;
+
+        @Override
+        protected long reserveBlock(int size) {
+            long first = nextBlock;
+            nextBlock += size;
+            return first;
+        }
+    };
+
+    @Benchmark
+    public String generate() {
+        return generator.generate();
+    }
+}
@@ -0,0 +1,56 @@
+package com.moneytransfer.MoneyTransferApplication.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.moneytransfer.MoneyTransferApplication.dto.AccountView;
+import com.moneytransfer.MoneyTransferApplication.dto.ApiResponse;
+import com.moneytransfer.MoneyTransferApplication.dto.TransferView;
+import com.moneytransfer.MoneyTransferApplication.entity.Transfer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Sérialisation JSON de la réponse de GET /api/transfers, configurée comme par Spring Boot
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"20", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        AccountView.Owner sender = new AccountView.Owner(1L, "Awa", "Diop");
+        AccountView.Owner recipient = new AccountView.Owner(2L, "Moussa", "Fall");
+        List<TransferView> transfers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            transfers.add(new TransferView((long) i,
+                    new TransferView.Party(1L, "ACC0000000001", sender),
+                    new TransferView.Party(2L, "ACC0000000002", recipient),
+                    new BigDecimal("1250.50"), "Transfert " + i, Transfer.TransferStatus.COMPLETED,
+                    LocalDateTime.now().minusMinutes(i)));
+        }
+        response = new ApiResponse(true, "Historique des transferts", transfers);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
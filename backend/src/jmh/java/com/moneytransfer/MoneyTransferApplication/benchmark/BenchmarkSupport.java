@@ -0,0 +1,35 @@
+package com.moneytransfer.MoneyTransferApplication.benchmark;
+
+import com.moneytransfer.MoneyTransferApplication.MoneyTransferApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.ArrayList;
+import java.util.List;
+
+// Contexte Spring complet sur une base H2 en mémoire (mode MySQL), sans serveur MySQL
+final class BenchmarkSupport {
+
+    static final String JWT_SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private BenchmarkSupport() {}
+
+    // Passées en arguments de ligne de commande : elles priment sur application.properties
+    static ConfigurableApplicationContext startApplication(String name, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--spring.devtools.restart.enabled=false",
+                "--app.jwt.secret=" + JWT_SECRET,
+                "--app.jwt.expiration=3600000",
+                "--logging.level.root=WARN"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return SpringApplication.run(MoneyTransferApplication.class, args.toArray(String[]::new));
+    }
+}
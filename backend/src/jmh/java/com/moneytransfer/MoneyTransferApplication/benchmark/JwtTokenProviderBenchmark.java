@@ -0,0 +1,76 @@
+package com.moneytransfer.MoneyTransferApplication.benchmark;
+
+import com.moneytransfer.MoneyTransferApplication.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Génération et vérification des JWT. "validateCached" mesure le chemin courant
+ * (jeton déjà vu), "validateUncached" la vérification HMAC complète : le cache
+ * ne garde qu'un jeton et les appels tournent sur un jeu de jetons distincts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final int TOKEN_COUNT = 1024;
+
+    private JwtTokenProvider cachingProvider;
+    private JwtTokenProvider uncachedProvider;
+    private Authentication authentication;
+    private String token;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cachingProvider = provider(10000);
+        uncachedProvider = provider(1);
+
+        authentication = authentication("bench@example.com");
+        token = cachingProvider.generateToken(authentication, 1L);
+        tokens = new String[TOKEN_COUNT];
+        for (int i = 0; i < TOKEN_COUNT; i++) {
+            tokens[i] = uncachedProvider.generateToken(authentication("user" + i + "@example.com"), (long) i);
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingProvider.generateToken(authentication, 1L);
+    }
+
+    @Benchmark
+    public boolean validateCached() {
+        return cachingProvider.authenticate(token) != null;
+    }
+
+    @Benchmark
+    public boolean validateUncached() {
+        next = (next + 1) % TOKEN_COUNT;
+        return uncachedProvider.authenticate(tokens[next]) != null;
+    }
+
+    private static JwtTokenProvider provider(int cacheSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", BenchmarkSupport.JWT_SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", 3600000);
+        ReflectionTestUtils.setField(provider, "cacheSize", cacheSize);
+        provider.init();
+        return provider;
+    }
+
+    private static Authentication authentication(String email) {
+        User principal = new User(email, "", List.of());
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
@@ -0,0 +1,37 @@
+package com.moneytransfer.MoneyTransferApplication.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import java.util.concurrent.TimeUnit;
+
+// Coût BCrypt par facteur de travail (app.security.bcrypt.strength)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    @Param({"10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("motdepasse123");
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("motdepasse123");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("motdepasse123", hash);
+    }
+}
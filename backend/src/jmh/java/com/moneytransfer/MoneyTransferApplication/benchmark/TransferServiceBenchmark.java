@@ -0,0 +1,74 @@
+package com.moneytransfer.MoneyTransferApplication.benchmark;
+
+import com.moneytransfer.MoneyTransferApplication.dto.TransferRequest;
+import com.moneytransfer.MoneyTransferApplication.entity.Account;
+import com.moneytransfer.MoneyTransferApplication.entity.Transfer;
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.repository.UserRepository;
+import com.moneytransfer.MoneyTransferApplication.service.TransferService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransferService.createTransfer sur H2, avec les deux moteurs (jpa et ledger).
+ * Chaque appel choisit une paire de comptes au hasard parmi ACCOUNT_COUNT : on
+ * mesure le coût d'un transfert, pas l'attente sur une même ligne.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferServiceBenchmark {
+
+    private static final int ACCOUNT_COUNT = 100;
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Param({"jpa", "ledger"})
+    public String engine;
+
+    private ConfigurableApplicationContext context;
+    private TransferService transferService;
+    private String[] accountNumbers;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkSupport.startApplication("transfers-" + engine, "app.transfers.engine=" + engine);
+        transferService = context.getBean(TransferService.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+
+        accountNumbers = new String[ACCOUNT_COUNT];
+        for (int i = 0; i < ACCOUNT_COUNT; i++) {
+            User user = new User("bench" + i + "@example.com", "-", "Bench", "User" + i,
+                    "+22170000" + i, "SN", null, "BENCH" + i, null);
+            user.setUsername("bench" + i);
+            user = userRepository.save(user);
+            accountNumbers[i] = "BENCH" + String.format("%07d", i);
+            accountRepository.save(new Account(accountNumbers[i], new BigDecimal("1000000000.00"), user));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Transfer createTransfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(ACCOUNT_COUNT);
+        int to = (from + 1 + random.nextInt(ACCOUNT_COUNT - 1)) % ACCOUNT_COUNT;
+
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber(accountNumbers[from]);
+        request.setToAccountNumber(accountNumbers[to]);
+        request.setAmount(AMOUNT);
+        return transferService.createTransfer(request);
+    }
+}
@@ -0,0 +1,77 @@
+package com.moneytransfer.MoneyTransferApplication.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+// Client HTTP minimal vers l'API REST, appelé depuis des threads virtuels (un par requête)
+final class ApiClient {
+
+    record Reply(int status, JsonNode body) {
+
+        boolean ok() {
+            return status / 100 == 2;
+        }
+
+        // 503 (pool BCrypt saturé, abonnements pleins) ou 429 (limitation de débit)
+        boolean busy() {
+            return status == 503 || status == 429;
+        }
+
+        String message() {
+            return body == null ? "" : body.path("message").asText();
+        }
+    }
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final ObjectMapper json = new ObjectMapper();
+
+    ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    Reply get(String path, String token) throws IOException, InterruptedException {
+        return send(request(path, token).GET());
+    }
+
+    Reply post(String path, String token, Object body) throws IOException, InterruptedException {
+        return post(path, token, body, Map.of());
+    }
+
+    Reply post(String path, String token, Object body, Map<String, String> headers)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder builder = request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body)));
+        headers.forEach(builder::header);
+        return send(builder);
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private Reply send(HttpRequest.Builder builder) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = http.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        byte[] body = response.body();
+        return new Reply(response.statusCode(), body.length == 0 ? null : json.readTree(body));
+    }
+}
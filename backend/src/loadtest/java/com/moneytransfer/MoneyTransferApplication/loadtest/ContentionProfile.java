@@ -0,0 +1,58 @@
+package com.moneytransfer.MoneyTransferApplication.loadtest;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Forme de la contention : comment sont choisis le compte débité et le compte crédité.
+ * Renvoie les indices {émetteur, destinataire} parmi les utilisateurs créés.
+ */
+enum ContentionProfile {
+
+    // Paires tirées au hasard : peu de conflits de verrous
+    UNIFORM {
+        @Override
+        int[] pick(int users, double hotShare, ThreadLocalRandom random) {
+            return uniform(users, random);
+        }
+    },
+
+    // Un commerçant (utilisateur 0) reçoit la majorité des paiements : une seule ligne très disputée
+    HOT_MERCHANT {
+        @Override
+        int[] pick(int users, double hotShare, ThreadLocalRandom random) {
+            if (random.nextDouble() < hotShare) {
+                return new int[]{1 + random.nextInt(users - 1), 0};
+            }
+            return uniform(users, random);
+        }
+    },
+
+    // Chaque compte paie son voisin : chaque ligne est à la fois débitée et créditée en parallèle
+    RING {
+        @Override
+        int[] pick(int users, double hotShare, ThreadLocalRandom random) {
+            int from = random.nextInt(users);
+            return new int[]{from, (from + 1) % users};
+        }
+    };
+
+    abstract int[] pick(int users, double hotShare, ThreadLocalRandom random);
+
+    String label() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    static ContentionProfile from(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    private static int[] uniform(int users, ThreadLocalRandom random) {
+        int from = random.nextInt(users);
+        int to = random.nextInt(users - 1);
+        if (to >= from) {
+            to++;
+        }
+        return new int[]{from, to};
+    }
+}
@@ -0,0 +1,330 @@
+package com.moneytransfer.MoneyTransferApplication.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Déroulé d'un test de charge : inscription et connexion des utilisateurs par l'API,
+ * trafic en boucle ouverte au débit cible, puis vérification de la conservation des soldes.
+ */
+final class LoadDriver {
+
+    private record Participant(String email, String token, String accountNumber) {}
+
+    // Transfert accepté (202) en mode asynchrone : les soldes ne bougent qu'une fois appliqué
+    private record Accepted(long id, int from, int to, long cents) {}
+
+    private static final String PASSWORD = "loadtest1";
+
+    private final ApiClient client;
+    private final LoadTestOptions options;
+    private final OperationStats transfers = new OperationStats("transfer");
+    private final OperationStats accountReads = new OperationStats("account");
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder unknownOutcomes = new LongAdder();
+    private final ConcurrentLinkedQueue<Accepted> accepted = new ConcurrentLinkedQueue<>();
+
+    private List<Participant> participants;
+    // Mouvements acquittés (2xx) par compte, en centimes
+    private AtomicLongArray acknowledged;
+
+    LoadDriver(ApiClient client, LoadTestOptions options) {
+        this.client = client;
+        this.options = options;
+    }
+
+    /** Renvoie true si les soldes sont conservés à la fin du test. */
+    boolean run(PrintStream out) throws Exception {
+        out.println("== Test de charge : " + options.describe());
+
+        long setupStart = System.nanoTime();
+        participants = register();
+        acknowledged = new AtomicLongArray(participants.size());
+        if (options.profile() == ContentionProfile.HOT_MERCHANT && options.merchantSlots() > 1) {
+            enableMerchantSlots();
+        }
+        Map<String, BigDecimal> initial = balances();
+        BigDecimal initialTotal = total(initial);
+        out.printf("Préparation : %d utilisateurs inscrits et connectés en %.1f s%n",
+                participants.size(), (System.nanoTime() - setupStart) / 1e9);
+
+        long measuredNanos = drive();
+        if (!accepted.isEmpty()) {
+            settleAccepted(out);
+        }
+
+        Map<String, BigDecimal> finalBalances = settledBalances();
+        BigDecimal finalTotal = total(finalBalances);
+
+        out.println();
+        OperationStats.printHeader(out);
+        transfers.print(out);
+        accountReads.print(out);
+        out.println();
+        long completed = transfers.count() + accountReads.count();
+        out.printf("Débit : %.1f req/s mesurées (cible %d/s), %d requêtes abandonnées (plus de %d en vol)%n",
+                completed / (measuredNanos / 1e9), options.rate(), dropped.sum(), options.maxInFlight());
+
+        boolean conserved = initialTotal.compareTo(finalTotal) == 0;
+        out.printf("Soldes : total initial %s, total final %s -> %s%n", initialTotal, finalTotal,
+                conserved ? "conservé" : "NON CONSERVÉ (écart " + finalTotal.subtract(initialTotal) + ")");
+
+        if (unknownOutcomes.sum() == 0) {
+            int mismatches = 0;
+            for (int i = 0; i < participants.size(); i++) {
+                String accountNumber = participants.get(i).accountNumber();
+                BigDecimal expected = initial.get(accountNumber).add(BigDecimal.valueOf(acknowledged.get(i), 2));
+                if (expected.compareTo(finalBalances.get(accountNumber)) != 0) {
+                    mismatches++;
+                }
+            }
+            out.printf("Comptes : %d/%d conformes aux transferts acquittés%n",
+                    participants.size() - mismatches, participants.size());
+            conserved &= mismatches == 0;
+        } else {
+            out.printf("Comptes : vérification individuelle ignorée (%d requêtes sans réponse)%n", unknownOutcomes.sum());
+        }
+        return conserved;
+    }
+
+    // Planning à intervalles fixes : chaque requête part à son instant prévu, quelle que soit la durée des précédentes
+    private long drive() {
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        double periodNanos = 1e9 / options.rate();
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intended = start + (long) (i * periodNanos);
+                if (intended >= end) {
+                    break;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                boolean measured = intended >= measureFrom;
+                if (!inFlight.tryAcquire()) {
+                    if (measured) {
+                        dropped.increment();
+                    }
+                    continue;
+                }
+                workers.submit(() -> {
+                    try {
+                        execute(intended, measured);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return System.nanoTime() - measureFrom;
+    }
+
+    private void execute(long intended, boolean measured) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < options.readRatio()) {
+            Participant reader = participants.get(random.nextInt(participants.size()));
+            ApiClient.Reply reply = call(() -> client.get("/api/accounts", reader.token()));
+            if (measured) {
+                accountReads.record(System.nanoTime() - intended, reply);
+            }
+            return;
+        }
+
+        int[] pair = options.profile().pick(participants.size(), options.hotShare(), random);
+        Participant from = participants.get(pair[0]);
+        Participant to = participants.get(pair[1]);
+        long cents = 1 + random.nextInt(500);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("fromAccountNumber", from.accountNumber());
+        body.put("toAccountNumber", to.accountNumber());
+        body.put("amount", BigDecimal.valueOf(cents, 2));
+        body.put("description", "Test de charge");
+        Map<String, String> headers = options.idempotencyKeys()
+                ? Map.of("Idempotency-Key", UUID.randomUUID().toString())
+                : Map.of();
+
+        ApiClient.Reply reply = call(() -> client.post("/api/transfers", from.token(), body, headers));
+        if (reply == null) {
+            unknownOutcomes.increment();
+        } else if (reply.status() == 202) {
+            accepted.add(new Accepted(reply.body().path("data").path("id").asLong(), pair[0], pair[1], cents));
+        } else if (reply.ok()) {
+            acknowledged.addAndGet(pair[0], -cents);
+            acknowledged.addAndGet(pair[1], cents);
+        }
+        if (measured) {
+            transfers.record(System.nanoTime() - intended, reply);
+        }
+    }
+
+    // Attend le statut final de chaque transfert accepté ; seuls les COMPLETED comptent comme acquittés
+    private void settleAccepted(PrintStream out) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        int completed = 0;
+        int failed = 0;
+        int unsettled = 0;
+        for (Accepted transfer : accepted) {
+            String token = participants.get(transfer.from()).token();
+            String status = "PENDING";
+            while (true) {
+                ApiClient.Reply reply = client.get("/api/transfers/" + transfer.id(), token);
+                status = reply.body() == null ? "" : reply.body().path("data").path("status").asText();
+                if (!"PENDING".equals(status) || System.nanoTime() > deadline) {
+                    break;
+                }
+                TimeUnit.MILLISECONDS.sleep(50);
+            }
+            switch (status) {
+                case "COMPLETED" -> {
+                    completed++;
+                    acknowledged.addAndGet(transfer.from(), -transfer.cents());
+                    acknowledged.addAndGet(transfer.to(), transfer.cents());
+                }
+                case "FAILED" -> failed++;
+                default -> {
+                    unsettled++;
+                    unknownOutcomes.increment();
+                }
+            }
+        }
+        out.printf("Asynchrones : %d acceptés, %d effectués, %d en échec, %d sans statut final%n",
+                accepted.size(), completed, failed, unsettled);
+    }
+
+    private interface Call {
+        ApiClient.Reply send() throws IOException, InterruptedException;
+    }
+
+    // null : pas de réponse (délai dépassé, connexion refusée), l'issue du transfert est inconnue
+    private static ApiClient.Reply call(Call call) {
+        try {
+            return call.send();
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private List<Participant> register() throws Exception {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        Semaphore permits = new Semaphore(options.setupConcurrency());
+        List<Future<Participant>> pending = new ArrayList<>();
+        try (ExecutorService setup = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.users(); i++) {
+                int index = i;
+                pending.add(setup.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return registerAndLogin(run, index);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+        List<Participant> registered = new ArrayList<>(pending.size());
+        for (Future<Participant> future : pending) {
+            registered.add(future.get());
+        }
+        return registered;
+    }
+
+    private Participant registerAndLogin(String run, int index) throws IOException, InterruptedException {
+        String email = "load-" + run + "-" + index + "@loadtest.local";
+        Map<String, Object> registration = new HashMap<>();
+        registration.put("email", email);
+        registration.put("password", PASSWORD);
+        registration.put("firstName", "Charge");
+        registration.put("lastName", "U" + index);
+        registration.put("phoneNumber", "+0" + run + index);
+        registration.put("country", "SN");
+        registration.put("profilePhoto", "-");
+        registration.put("idNumber", "LT-" + run + "-" + index);
+        registration.put("idPhoto", "-");
+        expectOk(retryWhileBusy(() -> client.post("/api/auth/register", null, registration)), "Inscription de " + email);
+
+        ApiClient.Reply login = expectOk(retryWhileBusy(() -> client.post("/api/auth/login", null,
+                Map.of("email", email, "password", PASSWORD))), "Connexion de " + email);
+        String token = login.body().path("data").path("token").asText();
+
+        ApiClient.Reply accounts = expectOk(client.get("/api/accounts", token), "Comptes de " + email);
+        return new Participant(email, token, accounts.body().path("data").path(0).path("accountNumber").asText());
+    }
+
+    private void enableMerchantSlots() throws IOException, InterruptedException {
+        Participant merchant = participants.get(0);
+        expectOk(client.post("/api/accounts/" + merchant.accountNumber() + "/slots?count=" + options.merchantSlots(),
+                merchant.token(), Map.of()), "Sous-soldes du commerçant");
+    }
+
+    private Map<String, BigDecimal> balances() throws IOException, InterruptedException {
+        Map<String, BigDecimal> balances = new HashMap<>();
+        for (Participant participant : participants) {
+            JsonNode accounts = expectOk(client.get("/api/accounts", participant.token()), "Soldes de " + participant.email())
+                    .body().path("data");
+            for (JsonNode account : accounts) {
+                balances.put(account.path("accountNumber").asText(), account.path("balance").decimalValue());
+            }
+        }
+        return balances;
+    }
+
+    // Le moteur ledger écrit en différé : on relit jusqu'à obtenir deux relevés identiques
+    private Map<String, BigDecimal> settledBalances() throws IOException, InterruptedException {
+        Map<String, BigDecimal> previous = balances();
+        for (int attempt = 0; attempt < 20; attempt++) {
+            TimeUnit.MILLISECONDS.sleep(250);
+            Map<String, BigDecimal> current = balances();
+            if (current.equals(previous)) {
+                return current;
+            }
+            previous = current;
+        }
+        return previous;
+    }
+
+    private static BigDecimal total(Map<String, BigDecimal> balances) {
+        return balances.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static ApiClient.Reply retryWhileBusy(Call call) throws IOException, InterruptedException {
+        ApiClient.Reply reply = call.send();
+        for (int attempt = 0; reply.busy() && attempt < 50; attempt++) {
+            TimeUnit.MILLISECONDS.sleep(200);
+            reply = call.send();
+        }
+        return reply;
+    }
+
+    private static ApiClient.Reply expectOk(ApiClient.Reply reply, String step) {
+        if (!reply.ok()) {
+            throw new IllegalStateException(step + " : HTTP " + reply.status() + " " + reply.message());
+        }
+        return reply;
+    }
+}
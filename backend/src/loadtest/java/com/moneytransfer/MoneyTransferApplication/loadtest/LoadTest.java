@@ -0,0 +1,59 @@
+package com.moneytransfer.MoneyTransferApplication.loadtest;
+
+import com.moneytransfer.MoneyTransferApplication.MoneyTransferApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Générateur de charge de bout en bout.
+ *
+ *   mvn -Ploadtest verify -Dloadtest.args="profile=hot-merchant users=200 rate=500 duration=60"
+ *
+ * Sans url=..., démarre l'application sur une base H2 en mémoire (mode MySQL) ; engine=ledger,
+ * async=true et threads=virtual permettent de comparer les modes d'exécution. Code de sortie 1 si les soldes
+ * ne sont pas conservés.
+ */
+public final class LoadTest {
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = options.embedded() ? startApplication(options) : null;
+        boolean conserved;
+        try {
+            String baseUrl = context == null
+                    ? options.url()
+                    : "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            conserved = new LoadDriver(new ApiClient(baseUrl), options).run(System.out);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(conserved ? 0 : 1);
+    }
+
+    // Passées en arguments de ligne de commande : elles priment sur application.properties
+    private static ConfigurableApplicationContext startApplication(LoadTestOptions options) {
+        // Lue avant les arguments : sinon devtools relance main() avec les arguments Spring
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return SpringApplication.run(MoneyTransferApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--app.jwt.secret=loadtest-secret-loadtest-secret-loadtest-secret",
+                "--app.jwt.expiration=3600000",
+                "--app.transfers.engine=" + options.engine(),
+                "--app.transfers.async.enabled=" + options.async(),
+                "--spring.threads.virtual.enabled=" + options.virtualThreads(),
+                "--app.security.bcrypt.strength=" + options.bcryptStrength(),
+                // Tous les utilisateurs virtuels partagent l'adresse 127.0.0.1 : la limite par IP bloquerait la préparation
+                "--app.rate-limit.enabled=false",
+                "--logging.level.root=WARN");
+    }
+}
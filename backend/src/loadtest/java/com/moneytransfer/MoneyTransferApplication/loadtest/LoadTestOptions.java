@@ -0,0 +1,83 @@
+package com.moneytransfer.MoneyTransferApplication.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Paramètres du test de charge, passés sous la forme cle=valeur.
+ * Sans url=..., l'application est démarrée sur une base H2 en mémoire (mode MySQL).
+ */
+record LoadTestOptions(String url,
+                       int users,
+                       int rate,
+                       Duration duration,
+                       Duration warmup,
+                       ContentionProfile profile,
+                       double hotShare,
+                       double readRatio,
+                       int maxInFlight,
+                       int merchantSlots,
+                       boolean idempotencyKeys,
+                       int setupConcurrency,
+                       String engine,
+                       boolean async,
+                       boolean virtualThreads,
+                       int bcryptStrength) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Argument invalide (attendu cle=valeur) : " + arg);
+            }
+            values.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                values.remove("url"),
+                Integer.parseInt(take(values, "users", "200")),
+                Integer.parseInt(take(values, "rate", "500")),
+                Duration.ofSeconds(Long.parseLong(take(values, "duration", "60"))),
+                Duration.ofSeconds(Long.parseLong(take(values, "warmup", "10"))),
+                ContentionProfile.from(take(values, "profile", "uniform")),
+                Double.parseDouble(take(values, "hot-share", "0.8")),
+                Double.parseDouble(take(values, "read-ratio", "0.2")),
+                Integer.parseInt(take(values, "max-in-flight", "2000")),
+                Integer.parseInt(take(values, "merchant-slots", "0")),
+                Boolean.parseBoolean(take(values, "idempotency-keys", "false")),
+                Integer.parseInt(take(values, "setup-concurrency", "8")),
+                take(values, "engine", "jpa"),
+                Boolean.parseBoolean(take(values, "async", "false")),
+                "virtual".equals(take(values, "threads", "platform")),
+                Integer.parseInt(take(values, "bcrypt-strength", "4")));
+
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Paramètres inconnus : " + values.keySet());
+        }
+        if (options.users < 2) {
+            throw new IllegalArgumentException("Il faut au moins 2 utilisateurs");
+        }
+        if (options.rate <= 0) {
+            throw new IllegalArgumentException("Le débit cible doit être positif");
+        }
+        return options;
+    }
+
+    private static String take(Map<String, String> values, String key, String defaultValue) {
+        String value = values.remove(key);
+        return value == null ? defaultValue : value;
+    }
+
+    boolean embedded() {
+        return url == null;
+    }
+
+    String describe() {
+        return "profile=" + profile.label() + " users=" + users + " rate=" + rate + "/s duration=" + duration.toSeconds()
+                + "s warmup=" + warmup.toSeconds() + "s read-ratio=" + readRatio
+                + (profile == ContentionProfile.HOT_MERCHANT ? " hot-share=" + hotShare + " merchant-slots=" + merchantSlots : "")
+                + (embedded() ? " engine=" + engine + (async ? " async" : "") + " threads=" + (virtualThreads ? "virtual" : "platform") : " url=" + url);
+    }
+}
@@ -0,0 +1,67 @@
+package com.moneytransfer.MoneyTransferApplication.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latences (histogramme HdrHistogram, en nanosecondes) et issues d'un type de requête.
+ * La latence est mesurée depuis l'instant prévu par le planning et non depuis l'envoi effectif :
+ * un serveur qui ralentit ne ralentit pas le générateur (pas d'omission coordonnée).
+ */
+final class OperationStats {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder busy = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    OperationStats(String name) {
+        this.name = name;
+    }
+
+    void record(long latencyNanos, ApiClient.Reply reply) {
+        latencies.recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+        if (reply == null || reply.status() >= 500 && !reply.busy()) {
+            errors.increment();
+        } else if (reply.ok()) {
+            ok.increment();
+        } else if (reply.busy()) {
+            busy.increment();
+        } else {
+            rejected.increment();
+        }
+    }
+
+    long count() {
+        return latencies.getTotalCount();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    static void printHeader(PrintStream out) {
+        out.printf("%-10s %9s %9s %9s %7s %7s %9s %9s %9s %9s%n",
+                "operation", "count", "ok", "rejected", "busy", "errors", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+    }
+
+    void print(PrintStream out) {
+        out.printf("%-10s %9d %9d %9d %7d %7d %9.2f %9.2f %9.2f %9.2f%n",
+                name, count(), ok.sum(), rejected.sum(), busy.sum(), errors.sum(),
+                millis(latencies.getValueAtPercentile(50)),
+                millis(latencies.getValueAtPercentile(99)),
+                millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,23 @@
+package com.moneytransfer.MoneyTransferApplication.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches en mémoire (Caffeine), bornés en taille et en durée : voir spring.cache.*
+ * dans application.properties. Les statistiques hit/miss sont publiées par l'actuator
+ * (métriques cache.gets).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Utilisateur par email
+    public static final String USERS_BY_EMAIL = "usersByEmail";
+
+    // Identifiant et nombre de sous-soldes par numéro de compte (jamais le solde)
+    public static final String ACCOUNT_REFS = "accountRefs";
+
+    // Email du titulaire par numéro de compte (un compte ne change pas de titulaire)
+    public static final String ACCOUNT_OWNERS = "accountOwners";
+}
@@ -0,0 +1,45 @@
+package com.moneytransfer.MoneyTransferApplication.config;
+
+import com.moneytransfer.MoneyTransferApplication.service.events.TransferEventBroker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métriques applicatives publiées par l'actuator (/actuator/metrics), en plus de celles
+ * fournies par Spring Boot : http.server.requests, hikaricp.connections.acquire (attente
+ * d'une connexion du pool), cache.gets, jvm.*.
+ * Les meters du chemin critique sont créés au démarrage par leurs composants
+ * (TransferMetrics, JwtAuthenticationFilter, BoundedPasswordEncoder).
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounting() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    @Bean
+    public MeterBinder applicationMeters(TransferEventBroker transferEventBroker,
+                                         ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor) {
+        return registry -> {
+            Gauge.builder("events.subscribers", transferEventBroker, TransferEventBroker::getSubscriberCount)
+                    .description("Connexions SSE ouvertes")
+                    .register(registry);
+            FunctionCounter.builder("events.subscribers.dropped", transferEventBroker, TransferEventBroker::getDroppedCount)
+                    .description("Connexions SSE coupées : client trop lent")
+                    .register(registry);
+
+            pinningMonitor.ifAvailable(monitor ->
+                    FunctionCounter.builder("jvm.threads.virtual.pinned", monitor, VirtualThreadPinningMonitor::getPinnedCount)
+                            .description("Threads virtuels épinglés au-delà du seuil de diagnostic")
+                            .register(registry));
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.moneytransfer.MoneyTransferApplication.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Open-in-view (spring.jpa.open-in-view=false) réactivé partout sauf sur POST /api/transfers
+ * et sur l'import d'utilisateurs.
+ * Avec open-in-view, la première requête SQL d'un appel garde la connexion jusqu'à la réponse :
+ * un transfert asynchrone qui attend son enregistrement bloquerait ainsi la connexion dont
+ * le thread d'acceptation a besoin. Un import garderait de même une connexion pendant tout
+ * le hachage des mots de passe. Ces points d'entrée ne lisent aucune association paresseuse.
+ */
+@Configuration
+public class OpenInViewConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(interceptor).excludePathPatterns("/api/transfers", "/api/admin/users/import");
+    }
+}
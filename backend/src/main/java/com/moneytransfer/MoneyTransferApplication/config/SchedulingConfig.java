@@ -0,0 +1,10 @@
+package com.moneytransfer.MoneyTransferApplication.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Tâches périodiques de maintenance (purge des clés d'idempotence, points de contrôle du journal)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
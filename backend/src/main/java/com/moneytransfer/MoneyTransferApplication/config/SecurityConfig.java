@@ -1,22 +1,37 @@
 package com.moneytransfer.MoneyTransferApplication.config;
 
+import com.moneytransfer.MoneyTransferApplication.security.BoundedPasswordEncoder;
 import com.moneytransfer.MoneyTransferApplication.security.CustomUserDetailsService;
 import com.moneytransfer.MoneyTransferApplication.security.JwtAuthenticationEntryPoint;
 import com.moneytransfer.MoneyTransferApplication.security.JwtAuthenticationFilter;
+import com.moneytransfer.MoneyTransferApplication.security.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Configuration
 @EnableWebSecurity
@@ -28,9 +43,52 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Coût BCrypt : relevé ici, les anciens hachages sont mis à niveau à la connexion suivante
+    @Value("${app.security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    // 0 = un thread par cœur
+    @Value("${app.security.bcrypt.threads:0}")
+    private int bcryptThreads;
+
+    @Value("${app.security.bcrypt.queue-capacity:64}")
+    private int bcryptQueueCapacity;
+
+    @Value("${app.security.bcrypt.timeout-ms:5000}")
+    private long bcryptTimeoutMs;
+
+    // Compte technique du scraping de l'actuator (serveur d'administration, Prometheus) ;
+    // sans mot de passe, seul /actuator/health répond
+    @Value("${app.actuator.username:monitoring}")
+    private String actuatorUsername;
+
+    @Value("${app.actuator.password:}")
+    private String actuatorPassword;
+
+    // Threads de plateforme même en mode threads virtuels : BCrypt est du calcul pur.
+    // Pas un bean : un Executor déclaré empêcherait Spring Boot de créer applicationTaskExecutor
+    private ThreadPoolExecutor passwordHashingExecutor() {
+        int threads = bcryptThreads > 0 ? bcryptThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(bcryptQueueCapacity),
+                runnable -> new Thread(runnable, "bcrypt-" + counter.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength),
+                passwordHashingExecutor(), bcryptTimeoutMs, meterRegistry);
     }
 
     @Bean
@@ -38,10 +96,28 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    // Évaluée avant la chaîne de l'API : l'actuator ne dépend pas des JWT utilisateurs
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        http.securityMatcher(EndpointRequest.toAnyEndpoint())
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        .anyRequest().hasRole("ACTUATOR")
+                )
+                .httpBasic(Customizer.withDefaults())
+                .authenticationManager(actuatorAuthenticationManager())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // Suite d'une requête déjà autorisée (flux SSE, exports)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/h2-console/**").permitAll()
                         .anyRequest().authenticated()
@@ -50,18 +126,32 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        // Après le JWT : la limite s'applique à l'utilisateur authentifié, avant toute autorisation ou contrôleur
+        http.addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
         http.headers(headers -> headers.frameOptions(HeadersConfigurer.FrameOptionsConfig::disable)); // Pour H2 Console
 
         return http.build();
     }
-    @Autowired
-    private CustomUserDetailsService customUserDetailsService;
+
+    private AuthenticationManager actuatorAuthenticationManager() {
+        InMemoryUserDetailsManager accounts = new InMemoryUserDetailsManager();
+        if (!actuatorPassword.isBlank()) {
+            accounts.createUser(User.withUsername(actuatorUsername)
+                    .password(passwordEncoder().encode(actuatorPassword))
+                    .roles("ACTUATOR")
+                    .build());
+        }
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(accounts);
+        provider.setPasswordEncoder(passwordEncoder());
+        return new ProviderManager(provider);
+    }
 
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(customUserDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(customUserDetailsService);
         return authProvider;
     }
 }
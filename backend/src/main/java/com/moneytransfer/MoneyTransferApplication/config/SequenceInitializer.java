@@ -0,0 +1,52 @@
+package com.moneytransfer.MoneyTransferApplication.config;
+
+import com.moneytransfer.MoneyTransferApplication.entity.Account;
+import com.moneytransfer.MoneyTransferApplication.entity.Transfer;
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.ResultSet;
+
+/**
+ * Les tables créées avec des identifiants AUTO_INCREMENT contiennent déjà des lignes
+ * quand on passe à une séquence : on place la séquence au-delà du plus grand id
+ * avant la première insertion.
+ */
+@Configuration
+public class SequenceInitializer {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Garantit que le schéma (et donc la table de séquence) a été créé par Hibernate
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void alignSequences() {
+        alignSequence("transfers_seq", "transfers", Transfer.ID_ALLOCATION_SIZE);
+        alignSequence("users_seq", "users", User.ID_ALLOCATION_SIZE);
+        alignSequence("accounts_seq", "accounts", Account.ID_ALLOCATION_SIZE);
+    }
+
+    private void alignSequence(String sequenceTable, String table, int allocationSize) {
+        // Sur MySQL la séquence est émulée par une table ; les bases à séquences natives n'ont rien à corriger
+        if (!tableExists(sequenceTable)) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE " + sequenceTable + " SET next_val = GREATEST(next_val, "
+                + "(SELECT COALESCE(MAX(id), 0) + " + (allocationSize + 1) + " FROM " + table + "))");
+    }
+
+    private boolean tableExists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (ResultSet tables = connection.getMetaData().getTables(connection.getCatalog(), null, name, new String[]{"TABLE"})) {
+                return tables.next();
+            }
+        }));
+    }
+}
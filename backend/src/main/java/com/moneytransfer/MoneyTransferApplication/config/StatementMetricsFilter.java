@@ -0,0 +1,61 @@
+package com.moneytransfer.MoneyTransferApplication.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Nombre de requêtes SQL par requête HTTP (hibernate.statements.request), par méthode et route.
+ * Placé avant la chaîne de sécurité pour inclure les accès base de l'authentification.
+ *
+ * Les requêtes asynchrones (flux SSE, exports) ne sont pas mesurées : leurs accès base ont lieu
+ * sur un autre thread, après la fin de ce filtre, et le compte serait partiel.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StatementMetricsFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Un résumé par route : évite de reconstruire le meter à chaque requête
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        StatementCounter.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!isAsyncStarted(request)) {
+                summaryFor(request).record(StatementCounter.current());
+            }
+        }
+    }
+
+    private DistributionSummary summaryFor(HttpServletRequest request) {
+        // Route du contrôleur (/api/accounts/{accountNumber}) plutôt que l'URI : nombre de séries borné
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+        return summaries.computeIfAbsent(method + " " + uri, key -> DistributionSummary.builder("hibernate.statements.request")
+                .description("Requêtes SQL émises par requête HTTP")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,86 @@
+package com.moneytransfer.MoneyTransferApplication.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Diagnostic du mode threads virtuels : écoute l'événement JFR jdk.VirtualThreadPinned
+ * (thread virtuel bloqué sur son thread porteur, typiquement dans un bloc synchronized)
+ * et signale la couche en cause : pilote JDBC, pool de connexions, Hibernate ou application.
+ */
+@Component
+@ConditionalOnProperty(name = {"spring.threads.virtual.enabled", "app.diagnostics.pinning.enabled"}, havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    @Value("${app.diagnostics.pinning.threshold-ms:20}")
+    private long thresholdMs;
+
+    private final LongAdder pinnedCount = new LongAdder();
+
+    private RecordingStream stream;
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+        logger.info("Surveillance des threads virtuels épinglés (seuil {} ms)", thresholdMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        stream.close();
+    }
+
+    public long getPinnedCount() {
+        return pinnedCount.sum();
+    }
+
+    private void report(RecordedEvent event) {
+        pinnedCount.increment();
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+
+        logger.warn("Thread virtuel épinglé {} ms (couche : {}) :\n  {}",
+                event.getDuration().toMillis(), layerOf(frames),
+                frames.stream().limit(12)
+                        .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                        .collect(Collectors.joining("\n  ")));
+    }
+
+    // Première couche reconnue en partant du sommet de la pile
+    private String layerOf(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("com.mysql.")) {
+                return "JDBC (mysql-connector-j)";
+            }
+            if (type.startsWith("com.zaxxer.hikari.")) {
+                return "pool de connexions (HikariCP)";
+            }
+            if (type.startsWith("org.hibernate.")) {
+                return "Hibernate";
+            }
+            if (type.startsWith("com.moneytransfer.")) {
+                return "application";
+            }
+        }
+        return "inconnue";
+    }
+}
@@ -0,0 +1,69 @@
+package com.moneytransfer.MoneyTransferApplication.config.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import java.time.Duration;
+
+/**
+ * Lire ses propres écritures malgré le retard des réplicas : une requête qui modifie
+ * (POST, PUT, PATCH, DELETE) travaille entièrement sur le primaire, et les lectures de
+ * son auteur y restent pendant la fenêtre qui suit. Les autres utilisateurs voient les
+ * changements avec le retard du réplica.
+ */
+public class PrimaryPinning implements AsyncHandlerInterceptor {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWriters;
+
+    PrimaryPinning(Duration window, long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String user = currentUser();
+        if (isWrite(request) || user != null && recentWriters.getIfPresent(user) != null) {
+            PINNED.set(Boolean.TRUE);
+        }
+        return true;
+    }
+
+    // Fenêtre ouverte à la fin de la requête, donc après le commit des écritures
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        PINNED.remove();
+        String user = currentUser();
+        if (user != null && isWrite(request)) {
+            recentWriters.put(user, Boolean.TRUE);
+        }
+    }
+
+    // Réponse asynchrone (SSE, export) : le thread de la requête est rendu à Tomcat
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        PINNED.remove();
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
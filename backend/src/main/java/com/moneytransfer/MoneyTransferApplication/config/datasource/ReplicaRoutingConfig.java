@@ -0,0 +1,108 @@
+package com.moneytransfer.MoneyTransferApplication.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routage lecture/écriture, actif dès que app.datasource.replica-urls est renseigné.
+ *
+ * La source de données de JPA est un proxy qui n'ouvre la connexion physique qu'à la première
+ * requête SQL : une transaction readOnly (@Transactional(readOnly = true), export) part alors sur
+ * un réplica, tout le reste sur le primaire. Avec open-in-view, la connexion obtenue par la
+ * première requête SQL sert jusqu'à la fin de la requête HTTP : un point d'entrée en lecture
+ * seule ne doit donc pas écrire après une lecture readOnly.
+ */
+@Configuration
+@ConditionalOnExpression("'${app.datasource.replica-urls:}' != ''")
+public class ReplicaRoutingConfig implements WebMvcConfigurer {
+
+    @Value("${app.datasource.replica-urls}")
+    private List<String> replicaUrls;
+
+    @Value("${app.datasource.replica-pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${app.datasource.replica-connection-timeout-ms:1000}")
+    private long replicaConnectionTimeoutMs;
+
+    @Value("${app.datasource.replica-lag-query:SHOW REPLICA STATUS}")
+    private String lagQuery;
+
+    @Value("${app.datasource.replica-max-lag-ms:2000}")
+    private long maxLagMs;
+
+    @Value("${app.datasource.replica-check-interval-ms:1000}")
+    private long checkIntervalMs;
+
+    @Value("${app.datasource.pinning-max-users:100000}")
+    private long pinningMaxUsers;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(name);
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(properties.determineUsername());
+            replica.setPassword(properties.determinePassword());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setConnectionTimeout(replicaConnectionTimeoutMs);
+            replica.setReadOnly(true);
+            // Un réplica indisponible au démarrage ne doit pas empêcher l'application de démarrer
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new ReplicaRoutingDataSource.Replica(name, replica));
+        }
+        int checkTimeoutSeconds = (int) Math.max(1, checkIntervalMs / 1000);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicas, lagQuery,
+                maxLagMs, checkTimeoutSeconds, meterRegistry);
+        routing.checkReplicas();
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    // Au moins le retard toléré plus une période de vérification : le réplica a rattrapé l'écriture
+    @Bean
+    public PrimaryPinning primaryPinning() {
+        return new PrimaryPinning(Duration.ofMillis(maxLagMs + checkIntervalMs), pinningMaxUsers);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(primaryPinning());
+    }
+}
@@ -0,0 +1,189 @@
+package com.moneytransfer.MoneyTransferApplication.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Source des transactions en lecture seule : un réplica sain choisi à tour de rôle,
+ * le primaire sinon. Un réplica est sain si sa requête de retard répond, avec un retard
+ * inférieur au maximum toléré ; une connexion refusée le retire jusqu'à la vérification suivante.
+ * Les lectures d'un utilisateur qui vient d'écrire restent sur le primaire (voir PrimaryPinning).
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // Colonne de SHOW REPLICA STATUS (MySQL 8.0.22+) ; à défaut, la première colonne de la requête
+    private static final String LAG_COLUMN = "Seconds_Behind_Source";
+
+    // Connexion à la source choisie par le routage
+    @FunctionalInterface
+    private interface Connector {
+        Connection connect(HikariDataSource target) throws SQLException;
+    }
+
+    static final class Replica {
+        final String name;
+        final HikariDataSource dataSource;
+        volatile boolean healthy;
+        volatile long lagMs = -1;
+
+        Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final HikariDataSource primary;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private final int checkTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter replicaReads;
+    private final Counter pinnedReads;
+    private final Counter fallbackReads;
+
+    ReplicaRoutingDataSource(HikariDataSource primary, List<Replica> replicas, String lagQuery,
+                             long maxLagMs, int checkTimeoutSeconds, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+        this.checkTimeoutSeconds = checkTimeoutSeconds;
+        this.replicaReads = readCounter(meterRegistry, "replica", "replica");
+        this.pinnedReads = readCounter(meterRegistry, "primary", "pinned");
+        this.fallbackReads = readCounter(meterRegistry, "primary", "no-replica");
+        for (Replica replica : replicas) {
+            Gauge.builder("datasource.replica.lag", replica, r -> r.healthy ? r.lagMs : Double.NaN)
+                    .description("Retard du réplica en millisecondes (NaN s'il est écarté)")
+                    .baseUnit("milliseconds")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(HikariDataSource::getConnection);
+    }
+
+    /**
+     * Même routage que {@link #getConnection()}. Hikari ne gère qu'un compte par pool : avec les
+     * identifiants du pool, la connexion vient du pool ; avec d'autres, une connexion directe est
+     * ouverte sur la même base.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(target -> Objects.equals(username, target.getUsername()) && Objects.equals(password, target.getPassword())
+                ? target.getConnection()
+                : DriverManager.getConnection(target.getJdbcUrl(), username, password));
+    }
+
+    private Connection route(Connector connector) throws SQLException {
+        if (PrimaryPinning.isPinned()) {
+            pinnedReads.increment();
+            return connector.connect(primary);
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = connector.connect(replica.dataSource);
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                // Identifiants refusés (classe SQLSTATE 28) : le réplica n'y est pour rien
+                if (e.getSQLState() != null && e.getSQLState().startsWith("28")) {
+                    throw e;
+                }
+                replica.healthy = false;
+                logger.warn("Réplica {} écarté : connexion impossible ({})", replica.name, e.getMessage());
+            }
+        }
+        fallbackReads.increment();
+        return connector.connect(primary);
+    }
+
+    /** Relève le retard de chaque réplica, au démarrage puis périodiquement. */
+    @Scheduled(fixedDelayString = "${app.datasource.replica-check-interval-ms:1000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            String problem;
+            try {
+                long lagMs = measureLag(replica);
+                replica.lagMs = lagMs;
+                problem = lagMs < 0 ? "réplication arrêtée"
+                        : lagMs > maxLagMs ? "retard de " + lagMs + " ms"
+                        : null;
+            } catch (SQLException e) {
+                problem = e.getMessage();
+            }
+            replica.healthy = problem == null;
+            if (wasHealthy && problem != null) {
+                logger.warn("Réplica {} écarté : {}", replica.name, problem);
+            } else if (!wasHealthy && problem == null) {
+                logger.info("Réplica {} disponible (retard {} ms)", replica.name, replica.lagMs);
+            }
+        }
+    }
+
+    // -1 si le serveur ne réplique pas (aucune ligne) ou si la réplication est interrompue (NULL)
+    private long measureLag(Replica replica) throws SQLException {
+        try (Connection connection = replica.dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(checkTimeoutSeconds);
+            try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    return -1;
+                }
+                long seconds = resultSet.getLong(lagColumn(resultSet));
+                return resultSet.wasNull() ? -1 : seconds * 1000;
+            }
+        }
+    }
+
+    private static int lagColumn(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (LAG_COLUMN.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                return i;
+            }
+        }
+        return 1;
+    }
+
+    void close() {
+        for (Replica replica : replicas) {
+            replica.dataSource.close();
+        }
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.reads")
+                .description("Connexions ouvertes pour une transaction en lecture seule, par destination")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -1,14 +1,20 @@
 package com.moneytransfer.MoneyTransferApplication.controller;
 
+import com.moneytransfer.MoneyTransferApplication.dto.AccountView;
 import com.moneytransfer.MoneyTransferApplication.dto.ApiResponse;
+import com.moneytransfer.MoneyTransferApplication.dto.HistoricalBalance;
 import com.moneytransfer.MoneyTransferApplication.entity.Account;
-import com.moneytransfer.MoneyTransferApplication.entity.User;
-import com.moneytransfer.MoneyTransferApplication.repository.UserRepository;
+import com.moneytransfer.MoneyTransferApplication.service.AccountNumberGenerator;
 import com.moneytransfer.MoneyTransferApplication.service.AccountService;
+import com.moneytransfer.MoneyTransferApplication.service.journal.JournalService;
+import com.moneytransfer.MoneyTransferApplication.service.versions.UserVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -16,21 +22,24 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:4200")
 public class AccountController {
 
-
+    @Autowired
     private AccountService accountService;
 
     @Autowired
-    private UserRepository userRepository;
+    private JournalService journalService;
+
+    @Autowired
+    private UserVersionService userVersionService;
 
     @GetMapping
-    public ResponseEntity<ApiResponse> getUserAccounts(Authentication authentication) {
+    public ResponseEntity<ApiResponse> getUserAccounts(Authentication authentication, WebRequest request) {
         try {
-            String email = authentication.getName();
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("Utilisateur introuvable"));
-
-            List<Account> accounts = accountService.getAccountsByUserId(user.getId());
-            return ResponseEntity.ok(new ApiResponse(true, "Comptes récupérés", accounts));
+            String etag = userVersionService.etag(ETags.userId(authentication));
+            if (ETags.notModified(request, etag)) {
+                return null;
+            }
+            List<AccountView> accounts = accountService.getAccountViews(authentication.getName());
+            return ETags.ok(etag).body(new ApiResponse(true, "Comptes récupérés", accounts));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse(false, e.getMessage()));
@@ -38,11 +47,67 @@ public class AccountController {
     }
 
     @GetMapping("/{accountNumber}")
-    public ResponseEntity<ApiResponse> getAccountByNumber(@PathVariable String accountNumber) {
+    public ResponseEntity<ApiResponse> getAccountByNumber(@PathVariable String accountNumber, WebRequest request) {
+        try {
+            // Faute de frappe détectée par le chiffre de contrôle, sans requête
+            if (!AccountNumberGenerator.isValid(accountNumber)) {
+                throw new RuntimeException("Numéro de compte invalide");
+            }
+            // Version du titulaire, depuis les caches (identifiant du compte, titulaire)
+            AccountService.AccountRef ref = accountService.getAccountRef(accountNumber)
+                    .orElseThrow(() -> new RuntimeException("Compte introuvable"));
+            String etag = userVersionService.accountEtag(ref.id());
+            if (ETags.notModified(request, etag)) {
+                return null;
+            }
+            AccountView account = accountService.getAccountView(accountNumber)
+                    .orElseThrow(() -> new RuntimeException("Compte introuvable"));
+            return ETags.ok(etag).body(new ApiResponse(true, "Compte trouvé", account));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{accountNumber}/slots")
+    public ResponseEntity<ApiResponse> enableSharding(@PathVariable String accountNumber,
+                                                      @RequestParam int count,
+                                                      Authentication authentication) {
         try {
+            String owner = accountService.getOwnerEmail(accountNumber)
+                    .orElseThrow(() -> new RuntimeException("Compte introuvable"));
+            if (!owner.equals(authentication.getName())) {
+                throw new RuntimeException("Ce compte ne vous appartient pas");
+            }
+
             Account account = accountService.getAccountByNumber(accountNumber)
                     .orElseThrow(() -> new RuntimeException("Compte introuvable"));
-            return ResponseEntity.ok(new ApiResponse(true, "Compte trouvé", account));
+            Account sharded = accountService.enableSharding(account, count);
+            return ResponseEntity.ok(new ApiResponse(true, "Sous-soldes activés", AccountView.from(sharded)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    // Solde à une date passée (ISO, ex. 2025-01-31T23:59:59), reconstitué à partir du journal
+    @GetMapping("/{accountNumber}/balance")
+    public ResponseEntity<ApiResponse> getBalanceAt(@PathVariable String accountNumber,
+                                                    @RequestParam(required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+                                                    Authentication authentication) {
+        try {
+            String owner = accountService.getOwnerEmail(accountNumber)
+                    .orElseThrow(() -> new RuntimeException("Compte introuvable"));
+            if (!owner.equals(authentication.getName())) {
+                throw new RuntimeException("Ce compte ne vous appartient pas");
+            }
+
+            LocalDateTime when = at != null ? at : LocalDateTime.now();
+            AccountService.AccountRef ref = accountService.getAccountRef(accountNumber)
+                    .orElseThrow(() -> new RuntimeException("Compte introuvable"));
+            HistoricalBalance balance = new HistoricalBalance(accountNumber, when, journalService.balanceAt(ref.id(), when));
+            return ResponseEntity.ok(new ApiResponse(true, "Solde calculé", balance));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse(false, e.getMessage()));
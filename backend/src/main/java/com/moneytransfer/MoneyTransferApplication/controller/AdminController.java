@@ -0,0 +1,42 @@
+package com.moneytransfer.MoneyTransferApplication.controller;
+
+import com.moneytransfer.MoneyTransferApplication.dto.ApiResponse;
+import com.moneytransfer.MoneyTransferApplication.dto.UserImportReport;
+import com.moneytransfer.MoneyTransferApplication.service.AuthService;
+import com.moneytransfer.MoneyTransferApplication.service.onboarding.UserImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "http://localhost:4200")
+public class AdminController {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    // Corps brut (CSV avec en-tête ou NDJSON), lu en flux : pas de limite de taille multipart
+    @PostMapping("/users/import")
+    public ResponseEntity<ApiResponse> importUsers(@RequestParam(defaultValue = "csv") String format,
+                                                   InputStream body,
+                                                   Authentication authentication) {
+        if (!authService.isAdmin(authentication.getName())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ApiResponse(false, "Accès réservé aux administrateurs"));
+        }
+        try {
+            UserImportReport report = userImportService.importUsers(body, UserImportService.Format.from(format));
+            return ResponseEntity.ok(new ApiResponse(true, "Import terminé", report));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+}
@@ -4,7 +4,11 @@ import com.moneytransfer.MoneyTransferApplication.dto.ApiResponse;
 import com.moneytransfer.MoneyTransferApplication.dto.LoginRequest;
 import com.moneytransfer.MoneyTransferApplication.dto.RegisterRequest;
 import com.moneytransfer.MoneyTransferApplication.entity.User;
+import com.moneytransfer.MoneyTransferApplication.security.PasswordHashingBusyException;
 import com.moneytransfer.MoneyTransferApplication.service.AuthService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
@@ -15,7 +19,7 @@ import java.util.Map;
 @CrossOrigin(origins = "http://localhost:4200")
 public class AuthController {
 
-
+    @Autowired
     private AuthService authService;
 
     @PostMapping("/login")
@@ -23,6 +27,8 @@ public class AuthController {
         try {
             Map<String, Object> loginData = authService.login(loginRequest);
             return ResponseEntity.ok(new ApiResponse(true, "Connexion réussie", loginData));
+        } catch (PasswordHashingBusyException e) {
+            return busy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse(false, "Email ou mot de passe incorrect"));
@@ -34,9 +40,17 @@ public class AuthController {
         try {
             User user = authService.register(registerRequest);
             return ResponseEntity.ok(new ApiResponse(true, "Inscription réussie", user.getId()));
+        } catch (PasswordHashingBusyException e) {
+            return busy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse(false, e.getMessage()));
         }
     }
+
+    private ResponseEntity<ApiResponse> busy(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ApiResponse(false, e.getMessage()));
+    }
 }
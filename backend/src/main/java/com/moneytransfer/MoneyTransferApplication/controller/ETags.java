@@ -0,0 +1,31 @@
+package com.moneytransfer.MoneyTransferApplication.controller;
+
+import com.moneytransfer.MoneyTransferApplication.security.JwtPrincipal;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.context.request.WebRequest;
+
+// GET conditionnels : l'ETag est comparé avant toute lecture en base, un 304 n'a pas de corps
+final class ETags {
+
+    // Réponse propre à l'utilisateur, toujours revalidée : le navigateur renvoie lui-même If-None-Match
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ETags() {}
+
+    static Long userId(Authentication authentication) {
+        return authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal
+                ? principal.userId() : null;
+    }
+
+    // Positionne aussi l'en-tête ETag de la réponse ; true : 304 déjà prêt, le contrôleur renvoie null
+    static boolean notModified(WebRequest request, String etag) {
+        return etag != null && request.checkNotModified(etag);
+    }
+
+    // Sans ETag, les en-têtes anti-cache de Spring Security s'appliquent
+    static ResponseEntity.BodyBuilder ok(String etag) {
+        return etag != null ? ResponseEntity.ok().cacheControl(REVALIDATE) : ResponseEntity.ok();
+    }
+}
@@ -0,0 +1,32 @@
+package com.moneytransfer.MoneyTransferApplication.controller;
+
+import com.moneytransfer.MoneyTransferApplication.service.events.TransferEventBroker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "http://localhost:4200")
+public class EventController {
+
+    @Autowired
+    private TransferEventBroker transferEventBroker;
+
+    // Flux "transfer", "balance" et "resync" de l'utilisateur connecté
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(Authentication authentication) {
+        SseEmitter emitter = transferEventBroker.subscribe(authentication.getName());
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+}
@@ -1,16 +1,36 @@
 package com.moneytransfer.MoneyTransferApplication.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moneytransfer.MoneyTransferApplication.dto.ActivitySummary;
 import com.moneytransfer.MoneyTransferApplication.dto.ApiResponse;
+import com.moneytransfer.MoneyTransferApplication.dto.TransferPage;
 import com.moneytransfer.MoneyTransferApplication.dto.TransferRequest;
+import com.moneytransfer.MoneyTransferApplication.dto.TransferResult;
+import com.moneytransfer.MoneyTransferApplication.dto.TransferView;
 import com.moneytransfer.MoneyTransferApplication.entity.Transfer;
-import com.moneytransfer.MoneyTransferApplication.entity.User;
-import com.moneytransfer.MoneyTransferApplication.repository.UserRepository;
+import com.moneytransfer.MoneyTransferApplication.service.AccountService;
+import com.moneytransfer.MoneyTransferApplication.service.TransferExportService;
+import com.moneytransfer.MoneyTransferApplication.service.TransferOutcomeUnknownException;
+import com.moneytransfer.MoneyTransferApplication.service.TransferRejectedException;
 import com.moneytransfer.MoneyTransferApplication.service.TransferService;
+import com.moneytransfer.MoneyTransferApplication.service.idempotency.IdempotencyException;
+import com.moneytransfer.MoneyTransferApplication.service.idempotency.IdempotencyService;
+import com.moneytransfer.MoneyTransferApplication.service.totals.DailyTotalsService;
+import com.moneytransfer.MoneyTransferApplication.service.versions.UserVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -22,19 +42,88 @@ public class TransferController {
     private TransferService transferService;
 
     @Autowired
-    private UserRepository userRepository;
+    private TransferExportService transferExportService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private DailyTotalsService dailyTotalsService;
+
+    @Autowired
+    private UserVersionService userVersionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @PostMapping
-    public ResponseEntity<ApiResponse> createTransfer(
+    public ResponseEntity<?> createTransfer(
             @Valid @RequestBody TransferRequest transferRequest,
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            Authentication authentication) {
+        if (idempotencyKey == null) {
+            return executeTransfer(transferRequest);
+        }
+        // Un renvoi de la même requête rejoue la première réponse au lieu d'un second débit
+        try {
+            return idempotencyService.execute(authentication.getName(), idempotencyKey,
+                    requestHash(List.of(transferRequest)), () -> executeTransfer(transferRequest));
+        } catch (IdempotencyException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<ApiResponse> executeTransfer(TransferRequest transferRequest) {
+        try {
+            Transfer transfer = transferService.submitTransfer(transferRequest);
+            if (transfer.getStatus() == Transfer.TransferStatus.PENDING) {
+                // Mode asynchrone : statut final sur GET /api/transfers/{id} ou poussé par /api/events
+                return ResponseEntity.accepted()
+                        .body(new ApiResponse(true, "Transfert accepté, en cours de traitement", TransferView.of(transfer)));
+            }
+            return ResponseEntity.ok(new ApiResponse(true, "Transfert effectué avec succès", TransferView.of(transfer)));
+        } catch (TransferOutcomeUnknownException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                    .body(new ApiResponse(false, e.getMessage()));
+        } catch (TransferRejectedException e) {
+            // Saturation : rien n'a été exécuté, la même clé d'idempotence pourra être renvoyée
+            HttpStatus status = e.getReason() == TransferRejectedException.Reason.SATURATED
+                    ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status)
+                    .body(new ApiResponse(false, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> createTransfers(
+            @RequestBody List<TransferRequest> transferRequests,
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
+        if (idempotencyKey == null) {
+            return executeTransfers(transferRequests);
+        }
         try {
-            String email = authentication.getName();
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("Utilisateur introuvable"));
+            return idempotencyService.execute(authentication.getName(), idempotencyKey,
+                    requestHash(transferRequests), () -> executeTransfers(transferRequests));
+        } catch (IdempotencyException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
 
-            Transfer transfer = transferService.createTransfer(transferRequest);
-            return ResponseEntity.ok(new ApiResponse(true, "Transfert effectué avec succès", transfer));
+    private ResponseEntity<ApiResponse> executeTransfers(List<TransferRequest> transferRequests) {
+        try {
+            List<TransferResult> results = transferService.createTransfers(transferRequests);
+            long failed = results.stream().filter(result -> !result.isSuccess()).count();
+            String message = (results.size() - failed) + " transfert(s) effectué(s), " + failed + " en échec";
+            return ResponseEntity.ok(new ApiResponse(failed == 0, message, results));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse(false, e.getMessage()));
@@ -42,17 +131,112 @@ public class TransferController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse> getUserTransfers(Authentication authentication) {
+    public ResponseEntity<ApiResponse> getUserTransfers(Authentication authentication, WebRequest request) {
+        try {
+            String etag = userVersionService.etag(ETags.userId(authentication));
+            if (ETags.notModified(request, etag)) {
+                return null;
+            }
+            List<TransferView> transfers = transferService.getTransferViews(authentication.getName());
+            return ETags.ok(etag).body(new ApiResponse(true, "Historique des transferts", transfers));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse> getTransfer(@PathVariable Long id, Authentication authentication) {
+        try {
+            TransferView transfer = transferService.getTransferView(id, authentication.getName())
+                    .orElseThrow(() -> new RuntimeException("Transfert introuvable"));
+            String message = switch (transfer.status()) {
+                case PENDING -> "Transfert en cours de traitement";
+                case COMPLETED -> "Transfert effectué";
+                case FAILED -> transferService.getFailureReason(id).orElse("Transfert en échec");
+            };
+            return ResponseEntity.ok(new ApiResponse(transfer.status() != Transfer.TransferStatus.FAILED, message, transfer));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse> getUserTransferPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
         try {
-            String email = authentication.getName();
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("Utilisateur introuvable"));
+            TransferPage<TransferView> page = transferService.getTransferPage(authentication.getName(), cursor, size);
+            return ResponseEntity.ok(new ApiResponse(true, "Historique des transferts", page));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
 
-            List<Transfer> transfers = transferService.getTransfersByUserId(user.getId());
-            return ResponseEntity.ok(new ApiResponse(true, "Historique des transferts", transfers));
+    // Cumuls par jour et par compte (ISO, ex. from=2025-01-01) ; par défaut le mois en cours
+    @GetMapping("/summary")
+    public ResponseEntity<ApiResponse> getSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+        try {
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.withDayOfMonth(1);
+            ActivitySummary summary = dailyTotalsService.getSummary(authentication.getName(), start, end);
+            return ResponseEntity.ok(new ApiResponse(true, "Résumé des transferts", summary));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse(false, e.getMessage()));
         }
     }
+
+    // Type de corps déclaré : Spring choisit le gestionnaire du flux d'après la signature, pas d'après la valeur
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransfers(
+            @RequestParam String accountNumber,
+            @RequestParam(defaultValue = "ndjson") String format,
+            Authentication authentication) {
+        try {
+            TransferExportService.Format exportFormat = TransferExportService.Format.from(format);
+            String owner = accountService.getOwnerEmail(accountNumber)
+                    .orElseThrow(() -> new RuntimeException("Compte introuvable"));
+            if (!owner.equals(authentication.getName())) {
+                throw new RuntimeException("Ce compte ne vous appartient pas");
+            }
+
+            Long accountId = accountService.getAccountRef(accountNumber)
+                    .orElseThrow(() -> new RuntimeException("Compte introuvable"))
+                    .id();
+            StreamingResponseBody body = outputStream -> transferExportService.export(accountId, exportFormat, outputStream);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"transferts-" + accountNumber + "." + exportFormat.getExtension() + "\"")
+                    .body(body);
+        } catch (Exception e) {
+            ApiResponse error = new ApiResponse(false, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(outputStream -> objectMapper.writeValue(outputStream, error));
+        }
+    }
+
+    private static String requestHash(List<TransferRequest> transferRequests) {
+        List<Object> parts = new ArrayList<>(transferRequests.size() * 4);
+        for (TransferRequest transferRequest : transferRequests) {
+            if (transferRequest == null) {
+                parts.add(null);
+                continue;
+            }
+            BigDecimal amount = transferRequest.getAmount();
+            parts.add(transferRequest.getFromAccountNumber());
+            parts.add(transferRequest.getToAccountNumber());
+            parts.add(amount == null ? null : amount.stripTrailingZeros().toPlainString());
+            parts.add(transferRequest.getDescription());
+        }
+        return IdempotencyService.fingerprint(parts.toArray());
+    }
 }
@@ -0,0 +1,7 @@
+package com.moneytransfer.MoneyTransferApplication.dto;
+
+import java.math.BigDecimal;
+
+// Cumuls d'un compte sur la période demandée
+public record AccountActivity(String accountNumber, Long sentCount, Long receivedCount, BigDecimal totalSent, BigDecimal totalReceived) {
+}
@@ -0,0 +1,7 @@
+package com.moneytransfer.MoneyTransferApplication.dto;
+
+import java.math.BigDecimal;
+
+// Somme des écritures d'un compte sur une période (ou solde d'ouverture)
+public record AccountMovement(Long accountId, BigDecimal total) {
+}
@@ -0,0 +1,5 @@
+package com.moneytransfer.MoneyTransferApplication.dto;
+
+// Titulaire d'un compte : ne change jamais après la création
+public record AccountOwner(Long accountId, Long userId) {
+}
@@ -0,0 +1,34 @@
+package com.moneytransfer.MoneyTransferApplication.dto;
+
+import com.moneytransfer.MoneyTransferApplication.entity.Account;
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Vue d'un compte renvoyée par l'API, sans les données sensibles du titulaire
+public record AccountView(Long id,
+                          String accountNumber,
+                          BigDecimal balance,
+                          String currency,
+                          Integer slotCount,
+                          LocalDateTime createdAt,
+                          Owner user) {
+
+    public record Owner(Long id, String firstName, String lastName) {
+        static Owner of(User user) {
+            return user == null ? null : new Owner(user.getId(), user.getFirstName(), user.getLastName());
+        }
+    }
+
+    // Constructeur des requêtes JPQL "SELECT new ..."
+    public AccountView(Long id, String accountNumber, BigDecimal balance, String currency, Integer slotCount,
+                       LocalDateTime createdAt, Long userId, String firstName, String lastName) {
+        this(id, accountNumber, balance, currency, slotCount, createdAt, new Owner(userId, firstName, lastName));
+    }
+
+    public static AccountView from(Account account) {
+        return new AccountView(account.getId(), account.getAccountNumber(), account.getTotalBalance(),
+                account.getCurrency(), account.getSlotCount(), account.getCreatedAt(), Owner.of(account.getUser()));
+    }
+}
@@ -0,0 +1,11 @@
+package com.moneytransfer.MoneyTransferApplication.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+// Réponse de GET /api/transfers/summary : totaux de la période, détail par jour (jours actifs seulement) et par compte
+public record ActivitySummary(LocalDate from, LocalDate to,
+                              long sentCount, long receivedCount, BigDecimal totalSent, BigDecimal totalReceived,
+                              List<DailyActivity> days, List<AccountActivity> accounts) {
+}
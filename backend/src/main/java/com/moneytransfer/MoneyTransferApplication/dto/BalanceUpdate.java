@@ -0,0 +1,7 @@
+package com.moneytransfer.MoneyTransferApplication.dto;
+
+import java.math.BigDecimal;
+
+// Nouveau solde d'un compte, poussé aux abonnés du flux d'événements
+public record BalanceUpdate(String accountNumber, BigDecimal balance) {
+}
@@ -0,0 +1,8 @@
+package com.moneytransfer.MoneyTransferApplication.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Cumuls d'une journée (somme des buckets) ; un transfert entre comptes du même titulaire n'est compté qu'en envoi
+public record DailyActivity(LocalDate day, Long sentCount, Long receivedCount, BigDecimal totalSent, BigDecimal totalReceived) {
+}
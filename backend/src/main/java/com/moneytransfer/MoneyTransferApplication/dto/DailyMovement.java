@@ -0,0 +1,8 @@
+package com.moneytransfer.MoneyTransferApplication.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Transferts d'un utilisateur ou d'un compte sur une journée, dans un sens (reprise des cumuls)
+public record DailyMovement(Long ownerId, LocalDate day, Long count, BigDecimal total) {
+}
@@ -0,0 +1,8 @@
+package com.moneytransfer.MoneyTransferApplication.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Solde d'un compte à une date donnée, reconstitué à partir du journal
+public record HistoricalBalance(String accountNumber, LocalDateTime at, BigDecimal balance) {
+}
@@ -0,0 +1,16 @@
+package com.moneytransfer.MoneyTransferApplication.dto;
+
+import com.moneytransfer.MoneyTransferApplication.entity.Transfer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Ligne d'export : projection non gérée par le contexte de persistance
+public record TransferExportRow(Long id,
+                                LocalDateTime createdAt,
+                                String fromAccountNumber,
+                                String toAccountNumber,
+                                BigDecimal amount,
+                                String description,
+                                Transfer.TransferStatus status) {
+}
@@ -0,0 +1,19 @@
+package com.moneytransfer.MoneyTransferApplication.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+// Page d'historique ; nextCursor est null sur la dernière page
+@Setter
+@Getter
+public class TransferPage<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    public TransferPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+}
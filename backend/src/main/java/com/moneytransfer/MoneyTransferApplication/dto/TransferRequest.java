@@ -1,7 +1,9 @@
 package com.moneytransfer.MoneyTransferApplication.dto;
+import com.moneytransfer.MoneyTransferApplication.validation.AccountNumber;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -11,16 +13,21 @@ import java.math.BigDecimal;
 @Setter
 @Getter
 public class TransferRequest {
+    // Chiffre de contrôle vérifié avant toute recherche en base
     @NotBlank
+    @AccountNumber
     private String fromAccountNumber;
 
     @NotBlank
+    @AccountNumber
     private String toAccountNumber;
 
     @NotNull
     @DecimalMin(value = "0.01", message = "Le montant doit être supérieur à 0")
     private BigDecimal amount;
 
+    // Longueur de la colonne : avec le moteur ledger, un texte trop long ne serait refusé qu'à l'écriture différée
+    @Size(max = 255, message = "La description ne peut pas dépasser 255 caractères")
     private String description;
 
     // Constructeurs, getters et setters
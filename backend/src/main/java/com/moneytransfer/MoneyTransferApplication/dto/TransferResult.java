@@ -0,0 +1,25 @@
+package com.moneytransfer.MoneyTransferApplication.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Résultat d'un élément d'un lot de transferts
+@Setter
+@Getter
+public class TransferResult {
+    private int index;
+    private boolean success;
+    private String message;
+    private Long transferId;
+
+    public TransferResult(int index, boolean success, String message, Long transferId) {
+        this.index = index;
+        this.success = success;
+        this.message = message;
+        this.transferId = transferId;
+    }
+
+    public static TransferResult failed(int index, String message) {
+        return new TransferResult(index, false, message, null);
+    }
+}
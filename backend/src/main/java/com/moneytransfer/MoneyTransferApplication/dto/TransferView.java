@@ -0,0 +1,41 @@
+package com.moneytransfer.MoneyTransferApplication.dto;
+
+import com.moneytransfer.MoneyTransferApplication.entity.Account;
+import com.moneytransfer.MoneyTransferApplication.entity.Transfer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Vue d'un transfert renvoyée par l'API : comptes réduits au numéro et au titulaire
+public record TransferView(Long id,
+                           Party fromAccount,
+                           Party toAccount,
+                           BigDecimal amount,
+                           String description,
+                           Transfer.TransferStatus status,
+                           LocalDateTime createdAt) {
+
+    public record Party(Long id, String accountNumber, AccountView.Owner user) {
+    }
+
+    // Constructeur des requêtes JPQL "SELECT new ..."
+    public TransferView(Long id,
+                        Long fromId, String fromAccountNumber, Long fromUserId, String fromFirstName, String fromLastName,
+                        Long toId, String toAccountNumber, Long toUserId, String toFirstName, String toLastName,
+                        BigDecimal amount, String description, Transfer.TransferStatus status, LocalDateTime createdAt) {
+        this(id,
+                new Party(fromId, fromAccountNumber, new AccountView.Owner(fromUserId, fromFirstName, fromLastName)),
+                new Party(toId, toAccountNumber, new AccountView.Owner(toUserId, toFirstName, toLastName)),
+                amount, description, status, createdAt);
+    }
+
+    // Sans les titulaires : évite de charger les utilisateurs après un transfert
+    public static TransferView of(Transfer transfer) {
+        return new TransferView(transfer.getId(), party(transfer.getFromAccount()), party(transfer.getToAccount()),
+                transfer.getAmount(), transfer.getDescription(), transfer.getStatus(), transfer.getCreatedAt());
+    }
+
+    private static Party party(Account account) {
+        return new Party(account.getId(), account.getAccountNumber(), null);
+    }
+}
@@ -0,0 +1,7 @@
+package com.moneytransfer.MoneyTransferApplication.dto;
+
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+
+// Vue immuable d'un utilisateur pour l'authentification, seule forme mise en cache (jamais l'entité)
+public record UserCredentials(Long id, String email, String passwordHash, User.Role role) {
+}
@@ -0,0 +1,5 @@
+package com.moneytransfer.MoneyTransferApplication.dto;
+
+// Champs uniques d'un utilisateur, pour détecter les doublons d'un import sans charger les entités
+public record UserIdentity(String email, String phoneNumber, String idNumber) {
+}
@@ -0,0 +1,10 @@
+package com.moneytransfer.MoneyTransferApplication.dto;
+
+import java.util.List;
+
+// Bilan d'un import d'utilisateurs : une erreur par ligne refusée (numéro de ligne du fichier)
+public record UserImportReport(int total, int imported, long durationMs, List<RowError> errors) {
+
+    public record RowError(int line, String email, String message) {
+    }
+}
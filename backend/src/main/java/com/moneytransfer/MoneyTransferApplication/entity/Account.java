@@ -1,5 +1,7 @@
 package com.moneytransfer.MoneyTransferApplication.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
@@ -13,24 +15,38 @@ import java.util.List;
 @Entity
 @Table(name = "accounts")
 public class Account {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     // Getters et setters
+    // Séquence avec pré-allocation : l'import en masse regroupe les INSERT (impossible avec IDENTITY)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq")
+    @SequenceGenerator(name = "accounts_seq", sequenceName = "accounts_seq", allocationSize = Account.ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(unique = true, nullable = false)
     private String accountNumber;
 
+    @JsonIgnore
     @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal balance;
 
+    // Nombre de sous-soldes : 1 = compte classique, N > 1 = compte partitionné (voir AccountSlot)
+    @Column(nullable = false)
+    private Integer slotCount = 1;
+
+    // Somme des sous-soldes, renseignée par AccountService pour l'affichage
+    @JsonIgnore
+    @Transient
+    private BigDecimal slotsBalance = BigDecimal.ZERO;
+
     @Column(nullable = false)
     private String currency = "EUR";
 
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -49,6 +65,17 @@ public class Account {
         this.user = user;
     }
 
+    @JsonIgnore
+    public boolean isSharded() {
+        return slotCount != null && slotCount > 1;
+    }
+
+    // Solde exposé : solde principal + sous-soldes
+    @JsonProperty("balance")
+    public BigDecimal getTotalBalance() {
+        return balance == null ? null : balance.add(slotsBalance);
+    }
+
 }
 
 
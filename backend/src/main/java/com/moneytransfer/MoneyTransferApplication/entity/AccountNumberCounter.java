@@ -0,0 +1,30 @@
+package com.moneytransfer.MoneyTransferApplication.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Prochain numéro de compte non réservé, partagé par toutes les instances (une seule ligne).
+ * Chaque réservation avance le compteur d'une plage entière.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "account_number_counter")
+public class AccountNumberCounter {
+    public static final long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long nextValue;
+
+    public AccountNumberCounter() {}
+
+    public AccountNumberCounter(Long id, Long nextValue) {
+        this.id = id;
+        this.nextValue = nextValue;
+    }
+}
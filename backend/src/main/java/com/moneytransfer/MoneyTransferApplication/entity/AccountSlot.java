@@ -0,0 +1,39 @@
+package com.moneytransfer.MoneyTransferApplication.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Sous-solde d'un compte partitionné. Les crédits sont répartis entre les slots
+ * pour ne pas sérialiser toutes les écritures sur la ligne du compte.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "account_slots",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"account_id", "slot_index"}))
+public class AccountSlot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    @Column(name = "slot_index", nullable = false)
+    private Integer slotIndex;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    public AccountSlot() {}
+
+    public AccountSlot(Account account, Integer slotIndex) {
+        this.account = account;
+        this.slotIndex = slotIndex;
+    }
+}
@@ -0,0 +1,30 @@
+package com.moneytransfer.MoneyTransferApplication.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reprise de données lancée au démarrage (une ligne par reprise, partagée par toutes les instances).
+ * La ligne sert aussi de verrou : elle est verrouillée pendant la reprise, puis marquée terminée.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "backfill_state")
+public class BackfillState {
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    // null tant que la reprise n'est pas terminée
+    private LocalDateTime completedAt;
+
+    public BackfillState() {}
+
+    public BackfillState(String name) {
+        this.name = name;
+    }
+}
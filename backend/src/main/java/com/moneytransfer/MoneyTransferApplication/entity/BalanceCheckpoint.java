@@ -0,0 +1,45 @@
+package com.moneytransfer.MoneyTransferApplication.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Solde d'un compte arrêté à {@code asOf} : somme de toutes ses écritures enregistrées
+ * jusqu'à cet instant. Un point de contrôle n'est créé que pour les comptes qui ont bougé.
+ */
+@Getter
+@Entity
+@Immutable
+@Table(name = "balance_checkpoints", indexes = {
+        @Index(name = "idx_checkpoint_account_asof", columnList = "account_id, asOf", unique = true),
+        @Index(name = "idx_checkpoint_asof", columnList = "asOf")
+})
+public class BalanceCheckpoint {
+    public static final int ID_ALLOCATION_SIZE = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_checkpoints_seq")
+    @SequenceGenerator(name = "balance_checkpoints_seq", sequenceName = "balance_checkpoints_seq", allocationSize = BalanceCheckpoint.ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+
+    @Column(nullable = false)
+    private LocalDateTime asOf;
+
+    public BalanceCheckpoint() {}
+
+    public BalanceCheckpoint(Long accountId, BigDecimal balance, LocalDateTime asOf) {
+        this.accountId = accountId;
+        this.balance = balance;
+        this.asOf = asOf;
+    }
+}
@@ -0,0 +1,63 @@
+package com.moneytransfer.MoneyTransferApplication.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Cumuls journaliers d'un utilisateur ou d'un compte, incrémentés dans la transaction de
+ * chaque transfert validé. Les lignes ne sont écrites que par DailyTotalsService (upsert SQL) ;
+ * côté JPA elles ne servent qu'à la lecture.
+ *
+ * Les comptes partitionnés (et leur titulaire) répartissent leurs cumuls sur plusieurs lignes
+ * (bucket), comme leurs sous-soldes : la lecture fait la somme.
+ */
+@Getter
+@Entity
+@Immutable
+@Table(name = "daily_totals", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_totals", columnNames = {"scope", "owner_id", "activity_date", "bucket"})
+})
+public class DailyTotal {
+
+    public enum Scope {
+        USER,
+        ACCOUNT
+    }
+
+    // Lignes insérées en SQL natif (INSERT ... ON DUPLICATE KEY UPDATE), jamais par persist()
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Scope scope;
+
+    // Utilisateur ou compte selon scope
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "activity_date", nullable = false)
+    private LocalDate activityDate;
+
+    @Column(nullable = false)
+    private int bucket;
+
+    @Column(nullable = false)
+    private long sentCount;
+
+    @Column(nullable = false)
+    private long receivedCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalSent;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalReceived;
+
+    public DailyTotal() {}
+}
@@ -0,0 +1,58 @@
+package com.moneytransfer.MoneyTransferApplication.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Réponse enregistrée pour une clé d'idempotence (portée : utilisateur + clé).
+ * La ligne est créée avant l'exécution, sans réponse, et complétée ensuite :
+ * l'insertion sert de verrou entre instances.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_created", columnList = "createdAt")
+})
+public class IdempotencyRecord implements Persistable<String> {
+    @Id
+    private String id;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    // null tant que la requête est en cours
+    private Integer statusCode;
+
+    @Lob
+    private String responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Identifiant fourni par l'appelant : force un INSERT au lieu d'un merge
+    @Transient
+    private boolean isNew = true;
+
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(String id, String requestHash) {
+        this.id = id;
+        this.requestHash = requestHash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,63 @@
+package com.moneytransfer.MoneyTransferApplication.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Écriture du journal : mouvement signé sur un compte (débit négatif, crédit positif).
+ * Un transfert produit une paire débit/crédit de somme nulle. Les lignes ne sont
+ * jamais modifiées ni supprimées.
+ */
+@Getter
+@Entity
+@Immutable
+@Table(name = "journal_entries", indexes = {
+        // Solde à une date : écritures d'un compte postérieures au point de contrôle
+        @Index(name = "idx_journal_account_recorded", columnList = "account_id, recordedAt"),
+        // Points de contrôle : écritures d'une période, tous comptes confondus
+        @Index(name = "idx_journal_recorded", columnList = "recordedAt")
+})
+public class JournalEntry {
+    // Deux écritures par transfert : le double de la pré-allocation des transferts
+    public static final int ID_ALLOCATION_SIZE = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "journal_entries_seq")
+    @SequenceGenerator(name = "journal_entries_seq", sequenceName = "journal_entries_seq", allocationSize = JournalEntry.ID_ALLOCATION_SIZE)
+    private Long id;
+
+    // Identifiants simples : l'écriture ne demande aucune entité chargée
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    // null pour une écriture d'ouverture
+    @Column(name = "transfer_id")
+    private Long transferId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private EntryType type;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private LocalDateTime recordedAt = LocalDateTime.now();
+
+    public enum EntryType {
+        OPENING, DEBIT, CREDIT
+    }
+
+    public JournalEntry() {}
+
+    public JournalEntry(Long accountId, Long transferId, EntryType type, BigDecimal amount) {
+        this.accountId = accountId;
+        this.transferId = transferId;
+        this.type = type;
+        this.amount = amount;
+    }
+}
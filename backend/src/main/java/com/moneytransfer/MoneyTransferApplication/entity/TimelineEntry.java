@@ -0,0 +1,73 @@
+package com.moneytransfer.MoneyTransferApplication.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Historique par participant : une ligne par utilisateur concerné par un transfert
+ * (émetteur et destinataire, une seule si c'est le même). L'historique d'un utilisateur
+ * se lit dans l'index (user_id, created_at, transfer_id), sans jointure vers les comptes.
+ */
+@Getter
+@Entity
+@Immutable
+@Table(name = "transfer_timeline", indexes = {
+        // Hibernate range les colonnes de la clé composée par ordre alphabétique (created_at, transfer_id, user_id) :
+        // l'ordre utile à l'historique est porté par cet index, qui couvre toutes les colonnes
+        @Index(name = "idx_timeline_user", columnList = "user_id, created_at, transfer_id")
+})
+public class TimelineEntry implements Persistable<TimelineEntry.Key> {
+
+    @Embeddable
+    @Getter
+    public static class Key implements Serializable {
+        @Column(name = "user_id", nullable = false)
+        private Long userId;
+
+        // Même date que le transfert : l'ordre et les curseurs de l'historique ne changent pas
+        @Column(name = "created_at", nullable = false)
+        private LocalDateTime createdAt;
+
+        @Column(name = "transfer_id", nullable = false)
+        private Long transferId;
+
+        public Key() {}
+
+        public Key(Long userId, LocalDateTime createdAt, Long transferId) {
+            this.userId = userId;
+            this.createdAt = createdAt;
+            this.transferId = transferId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && userId.equals(key.userId)
+                    && createdAt.equals(key.createdAt) && transferId.equals(key.transferId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * userId.hashCode() + createdAt.hashCode()) + transferId.hashCode();
+        }
+    }
+
+    @EmbeddedId
+    private Key id;
+
+    public TimelineEntry() {}
+
+    public TimelineEntry(Long userId, Transfer transfer) {
+        this.id = new Key(userId, transfer.getCreatedAt(), transfer.getId());
+    }
+
+    // Lignes jamais relues avant insertion : un INSERT direct, sans SELECT préalable du merge
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
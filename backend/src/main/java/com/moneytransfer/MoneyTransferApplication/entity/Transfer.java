@@ -10,18 +10,28 @@ import java.time.LocalDateTime;
 @Setter
 @Getter
 @Entity
-@Table(name = "transfers")
+@Table(name = "transfers", indexes = {
+        // Historique et export d'un compte, côté émetteur et côté destinataire
+        @Index(name = "idx_transfers_from_created", columnList = "from_account_id, createdAt, id"),
+        @Index(name = "idx_transfers_to_created", columnList = "to_account_id, createdAt, id"),
+        // Reprise des transferts asynchrones en attente au démarrage
+        @Index(name = "idx_transfers_status", columnList = "status")
+})
 public class Transfer {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     // Getters et setters
+    // Séquence avec pré-allocation : IDENTITY empêche Hibernate de regrouper les INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfers_seq")
+    @SequenceGenerator(name = "transfers_seq", sequenceName = "transfers_seq", allocationSize = Transfer.ID_ALLOCATION_SIZE)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "from_account_id", nullable = false)
     private Account fromAccount;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "to_account_id", nullable = false)
     private Account toAccount;
 
@@ -37,6 +47,9 @@ public class Transfer {
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Motif d'échec d'un transfert asynchrone (statut FAILED)
+    private String failureReason;
+
     public enum TransferStatus {
         PENDING, COMPLETED, FAILED
     }
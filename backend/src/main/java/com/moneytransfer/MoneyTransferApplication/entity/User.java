@@ -10,9 +10,13 @@ import java.util.List;
 @Entity
 @Table(name = "users")
 public class User {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     // Getters et setters
+    // Séquence avec pré-allocation : l'import en masse regroupe les INSERT (impossible avec IDENTITY)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = User.ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -0,0 +1,27 @@
+package com.moneytransfer.MoneyTransferApplication.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+/**
+ * Version des données d'un utilisateur, partagée par toutes les instances : incrémentée dans
+ * chaque transaction qui touche un de ses comptes. Écrite en SQL (upsert) par UserVersionService ;
+ * l'entité ne sert qu'au schéma.
+ */
+@Getter
+@Entity
+@Table(name = "user_versions")
+public class UserVersion {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long version;
+
+    // Horloge de l'instance qui a écrit (epoch en millisecondes)
+    @Column(name = "changed_at_ms", nullable = false)
+    private long changedAtMs;
+
+    public UserVersion() {}
+}
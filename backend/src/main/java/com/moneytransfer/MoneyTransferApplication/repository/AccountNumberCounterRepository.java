@@ -0,0 +1,17 @@
+package com.moneytransfer.MoneyTransferApplication.repository;
+
+import com.moneytransfer.MoneyTransferApplication.entity.AccountNumberCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface AccountNumberCounterRepository extends JpaRepository<AccountNumberCounter, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM AccountNumberCounter c WHERE c.id = :id")
+    Optional<AccountNumberCounter> findByIdForUpdate(Long id);
+}
@@ -1,9 +1,18 @@
 package com.moneytransfer.MoneyTransferApplication.repository;
 
 
+import com.moneytransfer.MoneyTransferApplication.dto.AccountMovement;
+import com.moneytransfer.MoneyTransferApplication.dto.AccountOwner;
+import com.moneytransfer.MoneyTransferApplication.dto.AccountView;
 import com.moneytransfer.MoneyTransferApplication.entity.Account;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,5 +20,43 @@ import java.util.Optional;
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByAccountNumber(String accountNumber);
     List<Account> findByUserId(Long userId);
+
+    @Query("SELECT u.email FROM Account a JOIN a.user u WHERE a.accountNumber = :accountNumber")
+    Optional<String> findOwnerEmailByAccountNumber(String accountNumber);
+
+    @Query("SELECT new com.moneytransfer.MoneyTransferApplication.dto.AccountOwner(a.id, a.user.id) FROM Account a WHERE a.id IN :ids")
+    List<AccountOwner> findOwners(Collection<Long> ids);
+
+    String ACCOUNT_VIEW = "SELECT new com.moneytransfer.MoneyTransferApplication.dto.AccountView(" +
+            "a.id, a.accountNumber, " +
+            "a.balance + COALESCE((SELECT SUM(s.balance) FROM AccountSlot s WHERE s.account = a), 0), " +
+            "a.currency, a.slotCount, a.createdAt, u.id, u.firstName, u.lastName) " +
+            "FROM Account a JOIN a.user u ";
+
+    @Query(ACCOUNT_VIEW + "WHERE u.email = :email ORDER BY a.createdAt")
+    List<AccountView> findViewsByUserEmail(String email);
+
+    @Query(ACCOUNT_VIEW + "WHERE a.accountNumber = :accountNumber")
+    Optional<AccountView> findViewByAccountNumber(String accountNumber);
+
+    // Comptes sans aucune écriture au journal, avec leur solde courant (sous-soldes compris)
+    @Query("SELECT new com.moneytransfer.MoneyTransferApplication.dto.AccountMovement(a.id, " +
+            "a.balance + COALESCE((SELECT SUM(s.balance) FROM AccountSlot s WHERE s.account = a), 0)) " +
+            "FROM Account a WHERE NOT EXISTS (SELECT 1 FROM JournalEntry e WHERE e.accountId = a.id)")
+    List<AccountMovement> findBalancesWithoutJournal();
+
+    // Comptes d'une tranche verrouillés dans l'ordre des identifiants : deux tranches ne s'interbloquent pas
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountNumber IN :accountNumbers ORDER BY a.id")
+    List<Account> findByAccountNumberInForUpdate(Collection<String> accountNumbers);
     boolean existsByAccountNumber(String accountNumber);
+
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance + :delta WHERE a.id = :id")
+    int applyDelta(Long id, BigDecimal delta);
+
+    // Débit conditionnel : aucune ligne modifiée si le solde ne suffit pas
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance - :amount WHERE a.id = :id AND a.balance >= :amount")
+    int debitIfSufficient(Long id, BigDecimal amount);
 }
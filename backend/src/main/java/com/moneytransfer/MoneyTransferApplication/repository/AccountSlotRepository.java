@@ -0,0 +1,27 @@
+package com.moneytransfer.MoneyTransferApplication.repository;
+
+import com.moneytransfer.MoneyTransferApplication.entity.AccountSlot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface AccountSlotRepository extends JpaRepository<AccountSlot, Long> {
+    long countByAccountId(Long accountId);
+
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM AccountSlot s WHERE s.account.id = :accountId")
+    BigDecimal sumBalanceByAccountId(Long accountId);
+
+    @Modifying
+    @Query("UPDATE AccountSlot s SET s.balance = s.balance + :amount WHERE s.account.id = :accountId AND s.slotIndex = :slotIndex")
+    int credit(Long accountId, Integer slotIndex, BigDecimal amount);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AccountSlot s WHERE s.account.id = :accountId AND s.balance > 0 ORDER BY s.slotIndex")
+    List<AccountSlot> findNonEmptyForUpdate(Long accountId);
+}
@@ -0,0 +1,20 @@
+package com.moneytransfer.MoneyTransferApplication.repository;
+
+import com.moneytransfer.MoneyTransferApplication.entity.BackfillState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface BackfillStateRepository extends JpaRepository<BackfillState, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM BackfillState b WHERE b.name = :name")
+    Optional<BackfillState> findByNameForUpdate(String name);
+
+    @Query("SELECT COUNT(b) > 0 FROM BackfillState b WHERE b.name = :name AND b.completedAt IS NOT NULL")
+    boolean isCompleted(String name);
+}
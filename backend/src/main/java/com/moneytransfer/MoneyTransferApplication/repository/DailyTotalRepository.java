@@ -0,0 +1,59 @@
+package com.moneytransfer.MoneyTransferApplication.repository;
+
+import com.moneytransfer.MoneyTransferApplication.dto.AccountActivity;
+import com.moneytransfer.MoneyTransferApplication.dto.DailyActivity;
+import com.moneytransfer.MoneyTransferApplication.dto.DailyMovement;
+import com.moneytransfer.MoneyTransferApplication.entity.DailyTotal;
+import com.moneytransfer.MoneyTransferApplication.entity.Transfer.TransferStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyTotalRepository extends JpaRepository<DailyTotal, Long> {
+
+    String DAY = "cast(t.createdAt as LocalDate)";
+
+    // Lecture par l'index unique (scope, owner_id, activity_date, bucket) : une ligne par jour actif et par bucket
+    @Query("SELECT new com.moneytransfer.MoneyTransferApplication.dto.DailyActivity(d.activityDate, " +
+            "SUM(d.sentCount), SUM(d.receivedCount), SUM(d.totalSent), SUM(d.totalReceived)) FROM DailyTotal d " +
+            "WHERE d.scope = com.moneytransfer.MoneyTransferApplication.entity.DailyTotal.Scope.USER " +
+            "AND d.ownerId = (SELECT u.id FROM User u WHERE u.email = :email) " +
+            "AND d.activityDate BETWEEN :from AND :to GROUP BY d.activityDate ORDER BY d.activityDate")
+    List<DailyActivity> findUserDays(String email, LocalDate from, LocalDate to);
+
+    @Query("SELECT new com.moneytransfer.MoneyTransferApplication.dto.AccountActivity(a.accountNumber, " +
+            "SUM(d.sentCount), SUM(d.receivedCount), SUM(d.totalSent), SUM(d.totalReceived)) " +
+            "FROM DailyTotal d JOIN Account a ON a.id = d.ownerId " +
+            "WHERE d.scope = com.moneytransfer.MoneyTransferApplication.entity.DailyTotal.Scope.ACCOUNT " +
+            "AND a.user.email = :email AND d.activityDate BETWEEN :from AND :to " +
+            "GROUP BY a.accountNumber ORDER BY a.accountNumber")
+    List<AccountActivity> findAccountTotals(String email, LocalDate from, LocalDate to);
+
+    @Query("SELECT COUNT(d) > 0 FROM DailyTotal d")
+    boolean existsAny();
+
+    // Reprise de l'existant : mêmes règles que DailyTotalsService.record, regroupées par jour
+    @Query("SELECT new com.moneytransfer.MoneyTransferApplication.dto.DailyMovement(t.fromAccount.id, " + DAY + ", " +
+            "COUNT(t), SUM(t.amount)) FROM Transfer t WHERE t.status = :status " +
+            "GROUP BY t.fromAccount.id, " + DAY)
+    List<DailyMovement> sumSentByAccount(TransferStatus status);
+
+    @Query("SELECT new com.moneytransfer.MoneyTransferApplication.dto.DailyMovement(t.toAccount.id, " + DAY + ", " +
+            "COUNT(t), SUM(t.amount)) FROM Transfer t WHERE t.status = :status " +
+            "GROUP BY t.toAccount.id, " + DAY)
+    List<DailyMovement> sumReceivedByAccount(TransferStatus status);
+
+    @Query("SELECT new com.moneytransfer.MoneyTransferApplication.dto.DailyMovement(f.user.id, " + DAY + ", " +
+            "COUNT(t), SUM(t.amount)) FROM Transfer t JOIN t.fromAccount f WHERE t.status = :status " +
+            "GROUP BY f.user.id, " + DAY)
+    List<DailyMovement> sumSentByUser(TransferStatus status);
+
+    @Query("SELECT new com.moneytransfer.MoneyTransferApplication.dto.DailyMovement(d.user.id, " + DAY + ", " +
+            "COUNT(t), SUM(t.amount)) FROM Transfer t JOIN t.fromAccount f JOIN t.toAccount d " +
+            "WHERE t.status = :status AND f.user.id <> d.user.id GROUP BY d.user.id, " + DAY)
+    List<DailyMovement> sumReceivedByUser(TransferStatus status);
+}
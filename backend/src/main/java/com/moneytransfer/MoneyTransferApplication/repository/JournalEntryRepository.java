@@ -0,0 +1,23 @@
+package com.moneytransfer.MoneyTransferApplication.repository;
+
+import com.moneytransfer.MoneyTransferApplication.dto.AccountMovement;
+import com.moneytransfer.MoneyTransferApplication.entity.JournalEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JournalEntryRepository extends JpaRepository<JournalEntry, Long> {
+
+    // Intervalle ]from, to] : un point de contrôle arrêté à from contient déjà les écritures de cet instant
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM JournalEntry e " +
+            "WHERE e.accountId = :accountId AND e.recordedAt > :from AND e.recordedAt <= :to")
+    BigDecimal sumByAccountBetween(Long accountId, LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT new com.moneytransfer.MoneyTransferApplication.dto.AccountMovement(e.accountId, SUM(e.amount)) " +
+            "FROM JournalEntry e WHERE e.recordedAt > :from AND e.recordedAt <= :to GROUP BY e.accountId")
+    List<AccountMovement> sumByAccountsBetween(LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,26 @@
+package com.moneytransfer.MoneyTransferApplication.repository;
+
+import com.moneytransfer.MoneyTransferApplication.entity.TimelineEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, TimelineEntry.Key> {
+
+    // Reprise de l'existant, par plage d'identifiants de transferts ; la clé primaire rend le NOT EXISTS ponctuel
+    @Modifying
+    @Query("INSERT INTO TimelineEntry (id.userId, id.createdAt, id.transferId) " +
+            "SELECT f.user.id, t.createdAt, t.id FROM Transfer t JOIN t.fromAccount f " +
+            "WHERE t.id > :fromId AND t.id <= :toId AND NOT EXISTS (SELECT 1 FROM TimelineEntry e " +
+            "WHERE e.id.createdAt = t.createdAt AND e.id.transferId = t.id AND e.id.userId = f.user.id)")
+    int backfillSenders(Long fromId, Long toId);
+
+    @Modifying
+    @Query("INSERT INTO TimelineEntry (id.userId, id.createdAt, id.transferId) " +
+            "SELECT d.user.id, t.createdAt, t.id FROM Transfer t JOIN t.toAccount d " +
+            "WHERE t.id > :fromId AND t.id <= :toId AND NOT EXISTS (SELECT 1 FROM TimelineEntry e " +
+            "WHERE e.id.createdAt = t.createdAt AND e.id.transferId = t.id AND e.id.userId = d.user.id)")
+    int backfillRecipients(Long fromId, Long toId);
+}
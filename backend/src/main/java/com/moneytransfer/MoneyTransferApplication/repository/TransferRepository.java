@@ -1,17 +1,65 @@
 package com.moneytransfer.MoneyTransferApplication.repository;
 
+import com.moneytransfer.MoneyTransferApplication.dto.TransferView;
 import com.moneytransfer.MoneyTransferApplication.entity.Transfer;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 @Repository
 public interface TransferRepository extends JpaRepository<Transfer, Long> {
     List<Transfer> findByFromAccountIdOrToAccountIdOrderByCreatedAtDesc(Long fromAccountId, Long toAccountId);
 
-    @Query("SELECT t FROM Transfer t WHERE t.fromAccount.user.id = :userId OR t.toAccount.user.id = :userId ORDER BY t.createdAt DESC")
+    @Query("SELECT MAX(t.id) FROM Transfer t")
+    Optional<Long> findMaxId();
+
+    // Historique d'un utilisateur : parcours de l'index de la timeline, puis transferts par clé primaire
+    String TIMELINE = "FROM TimelineEntry e JOIN Transfer t ON t.id = e.id.transferId ";
+    String TIMELINE_ORDER = "ORDER BY e.id.createdAt DESC, e.id.transferId DESC";
+    String USER_ID_BY_EMAIL = "(SELECT u.id FROM User u WHERE u.email = :email)";
+
+    @Query("SELECT t " + TIMELINE + "WHERE e.id.userId = :userId " + TIMELINE_ORDER)
     List<Transfer> findByUserId(Long userId);
-}
 
+    String TRANSFER_VIEW_COLUMNS = "SELECT new com.moneytransfer.MoneyTransferApplication.dto.TransferView(" +
+            "t.id, f.id, f.accountNumber, fu.id, fu.firstName, fu.lastName, " +
+            "d.id, d.accountNumber, du.id, du.firstName, du.lastName, " +
+            "t.amount, t.description, t.status, t.createdAt) ";
+    String PARTIES = "JOIN t.fromAccount f JOIN f.user fu JOIN t.toAccount d JOIN d.user du ";
+    String TRANSFER_VIEW = TRANSFER_VIEW_COLUMNS + "FROM Transfer t " + PARTIES;
+    String TIMELINE_VIEW = TRANSFER_VIEW_COLUMNS + TIMELINE + PARTIES;
+
+    @Query(TIMELINE_VIEW + "WHERE e.id.userId = " + USER_ID_BY_EMAIL + " " + TIMELINE_ORDER)
+    List<TransferView> findViewsByUserEmail(String email);
+
+    @Query(TRANSFER_VIEW + "WHERE t.id = :id")
+    Optional<TransferView> findViewById(Long id);
+
+    @Query("SELECT t.failureReason FROM Transfer t WHERE t.id = :id")
+    Optional<String> findFailureReasonById(Long id);
+
+    @Query(TRANSFER_VIEW + "WHERE t.status = :status ORDER BY t.id")
+    List<TransferView> findViewsByStatus(Transfer.TransferStatus status);
+
+    // Verrouillés pour qu'un transfert en attente ne soit appliqué qu'une fois, même repris par deux instances
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transfer t WHERE t.id IN :ids ORDER BY t.id")
+    List<Transfer> findByIdInForUpdate(Collection<Long> ids);
+
+    // Pagination par curseur (createdAt, id) : une plage de l'index (user_id, created_at, transfer_id)
+    @Query(TIMELINE_VIEW + "WHERE e.id.userId = " + USER_ID_BY_EMAIL + " " + TIMELINE_ORDER)
+    List<TransferView> findFirstPageByUserEmail(String email, Pageable pageable);
+
+    @Query(TIMELINE_VIEW + "WHERE e.id.userId = " + USER_ID_BY_EMAIL + " " +
+            "AND (e.id.createdAt < :createdAt OR (e.id.createdAt = :createdAt AND e.id.transferId < :id)) " +
+            TIMELINE_ORDER)
+    List<TransferView> findPageByUserEmail(String email, LocalDateTime createdAt, Long id, Pageable pageable);
+}
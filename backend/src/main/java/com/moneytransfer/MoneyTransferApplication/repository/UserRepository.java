@@ -1,13 +1,31 @@
 package com.moneytransfer.MoneyTransferApplication.repository;
 
 
+import com.moneytransfer.MoneyTransferApplication.config.CacheConfig;
+import com.moneytransfer.MoneyTransferApplication.dto.UserCredentials;
+import com.moneytransfer.MoneyTransferApplication.dto.UserIdentity;
 import com.moneytransfer.MoneyTransferApplication.entity.User;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Entité gérée, pour les écritures : jamais mise en cache
     Optional<User> findByEmail(String email);
+
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_EMAIL, key = "#p0", unless = "#result == null")
+    @Query("SELECT new com.moneytransfer.MoneyTransferApplication.dto.UserCredentials(u.id, u.email, u.password, u.role) " +
+            "FROM User u WHERE u.email = :email")
+    Optional<UserCredentials> findCredentialsByEmail(String email);
     boolean existsByEmail(String email);
+
+    // Doublons d'une tranche d'import en une requête : email, téléphone ou pièce d'identité déjà enregistrés
+    @Query("SELECT new com.moneytransfer.MoneyTransferApplication.dto.UserIdentity(u.email, u.phoneNumber, u.idNumber) " +
+            "FROM User u WHERE u.email IN :emails OR u.phoneNumber IN :phoneNumbers OR u.idNumber IN :idNumbers")
+    List<UserIdentity> findIdentities(Collection<String> emails, Collection<String> phoneNumbers, Collection<String> idNumbers);
 }
\ No newline at end of file
@@ -1,29 +1,49 @@
 package com.moneytransfer.MoneyTransferApplication.security;
 
+import com.moneytransfer.MoneyTransferApplication.config.CacheConfig;
+import com.moneytransfer.MoneyTransferApplication.dto.UserCredentials;
 import com.moneytransfer.MoneyTransferApplication.entity.User;
 import com.moneytransfer.MoneyTransferApplication.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.ArrayList;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        UserCredentials user = userRepository.findCredentialsByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
         return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
+                .username(user.email())
+                .password(user.passwordHash())
                 .authorities(new ArrayList<>())
                 .build();
     }
+
+    // Appelé après une connexion réussie quand le hachage stocké a un coût inférieur à la configuration
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS_BY_EMAIL, key = "#user.username")
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User entity = userRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + user.getUsername()));
+        entity.setPassword(newPassword);
+        userRepository.save(entity);
+
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
 }
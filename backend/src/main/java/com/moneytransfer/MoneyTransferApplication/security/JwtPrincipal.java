@@ -0,0 +1,15 @@
+package com.moneytransfer.MoneyTransferApplication.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.time.Instant;
+
+// Utilisateur authentifié reconstruit à partir des claims du jeton, sans accès base ;
+// userId est null pour un jeton émis avant l'ajout du claim
+public record JwtPrincipal(String email, Long userId, Instant expiresAt) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,9 @@
+package com.moneytransfer.MoneyTransferApplication.security;
+
+// Le pool de hachage est saturé : la requête doit être refusée immédiatement
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException() {
+        super("Service momentanément surchargé, veuillez réessayer");
+    }
+}
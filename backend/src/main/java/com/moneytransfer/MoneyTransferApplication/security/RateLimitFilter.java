@@ -0,0 +1,196 @@
+package com.moneytransfer.MoneyTransferApplication.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.moneytransfer.MoneyTransferApplication.dto.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitation de débit par seau à jetons, placée dans la chaîne de sécurité juste après le filtre JWT.
+ *
+ * La clé est l'utilisateur authentifié, ou l'adresse IP pour /api/auth/** et les requêtes anonymes.
+ * Un refus est un 429 écrit directement : ni contrôleur, ni connexion à la base.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String AUTH_PATH = "/api/auth/";
+    private static final String TRANSFERS_PATH = "/api/transfers";
+    private static final String API_PATH = "/api/";
+
+    // Première règle applicable ; les chemins hors /api (actuator, console H2) ne sont pas limités
+    public enum Rule {
+        AUTH,
+        TRANSFERS,
+        API
+    }
+
+    /**
+     * Seau à jetons sous forme GCRA : un seul long par clé, l'instant où le seau sera de nouveau plein,
+     * avancé par compareAndSet. Une entrée inactive depuis capacity × intervalle correspond à un seau
+     * plein : son éviction ne change rien.
+     */
+    static final class Limiter {
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final Cache<String, AtomicLong> buckets;
+
+        Limiter(int capacity, double perSecond, long maxKeys) {
+            if (capacity < 1 || perSecond <= 0) {
+                throw new IllegalArgumentException("Limite de débit invalide : capacité " + capacity + ", " + perSecond + "/s");
+            }
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / perSecond);
+            this.toleranceNanos = intervalNanos * (capacity - 1);
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(Duration.ofNanos(intervalNanos * capacity))
+                    .build();
+        }
+
+        /** 0 si un jeton est pris, sinon l'attente en nanosecondes avant le prochain jeton. */
+        long tryAcquire(String key) {
+            AtomicLong full = buckets.get(key, k -> new AtomicLong(System.nanoTime()));
+            while (true) {
+                long now = System.nanoTime();
+                long current = full.get();
+                long theoretical = current - now > 0 ? current : now;
+                long wait = theoretical - now - toleranceNanos;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (full.compareAndSet(current, theoretical + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    // Par règle : borne la mémoire si les clés sont nombreuses (une clé évincée repart d'un seau plein)
+    @Value("${app.rate-limit.max-keys:100000}")
+    private long maxKeys;
+
+    @Value("${app.rate-limit.auth.capacity:10}")
+    private int authCapacity;
+
+    @Value("${app.rate-limit.auth.per-second:0.2}")
+    private double authPerSecond;
+
+    @Value("${app.rate-limit.transfers.capacity:20}")
+    private int transfersCapacity;
+
+    @Value("${app.rate-limit.transfers.per-second:5}")
+    private double transfersPerSecond;
+
+    @Value("${app.rate-limit.api.capacity:100}")
+    private int apiCapacity;
+
+    @Value("${app.rate-limit.api.per-second:20}")
+    private double apiPerSecond;
+
+    private final Map<Rule, Limiter> limiters = new EnumMap<>(Rule.class);
+    private final Map<Rule, Counter> rejections = new EnumMap<>(Rule.class);
+    private byte[] rejectionBody;
+
+    // Sans exception vérifiée : Tomcat rappelle aussi les @PostConstruct des filtres qu'il démarre
+    @PostConstruct
+    public void init() {
+        limiters.put(Rule.AUTH, new Limiter(authCapacity, authPerSecond, maxKeys));
+        limiters.put(Rule.TRANSFERS, new Limiter(transfersCapacity, transfersPerSecond, maxKeys));
+        limiters.put(Rule.API, new Limiter(apiCapacity, apiPerSecond, maxKeys));
+        for (Rule rule : Rule.values()) {
+            rejections.put(rule, Counter.builder("security.rate_limit.rejected")
+                    .description("Requêtes refusées par la limitation de débit")
+                    .tag("rule", rule.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        // Corps identique pour tous les refus : sérialisé une fois
+        try {
+            rejectionBody = objectMapper.writeValueAsBytes(
+                    new ApiResponse(false, "Trop de requêtes, veuillez réessayer plus tard"));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith(API_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Rule rule = ruleFor(request);
+        long wait = limiters.get(rule).tryAcquire(keyFor(rule, request));
+        if (wait > 0) {
+            rejections.get(rule).increment();
+            reject(response, wait);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static Rule ruleFor(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (uri.startsWith(AUTH_PATH)) {
+            return Rule.AUTH;
+        }
+        if ("POST".equals(request.getMethod()) && uri.startsWith(TRANSFERS_PATH)) {
+            return Rule.TRANSFERS;
+        }
+        return Rule.API;
+    }
+
+    // Avant authentification, seule l'adresse distingue les clients ; derrière un proxy, c'est celle
+    // de X-Forwarded-For, reprise par Tomcat (server.forward-headers-strategy) pour les proxies de confiance
+    private static String keyFor(Rule rule, HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (rule != Rule.AUTH && authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal.getName();
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(rejectionBody.length);
+        response.getOutputStream().write(rejectionBody);
+    }
+}
@@ -0,0 +1,145 @@
+package com.moneytransfer.MoneyTransferApplication.service;
+
+import com.moneytransfer.MoneyTransferApplication.entity.AccountNumberCounter;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountNumberCounterRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.nio.CharBuffer;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Numéros de compte attribués à l'inscription : "ACC", 10 chiffres et un chiffre de contrôle (Luhn).
+ *
+ * Chaque instance réserve en base une plage de numéros consécutifs, puis les distribue en mémoire :
+ * un seul aller-retour par plage (app.accounts.number-block-size), et deux instances ne reçoivent
+ * jamais la même plage. Les numéros restants d'une plage sont perdus à l'arrêt, sans conséquence.
+ */
+@Component
+public class AccountNumberGenerator {
+
+    public static final String PREFIX = "ACC";
+
+    private static final int DIGITS = 10;
+    private static final long MAX_VALUE = 9_999_999_999L;
+
+    // Numéros attribués avant les plages (10 caractères hexadécimaux d'un UUID) : sans chiffre de contrôle
+    private static final Pattern LEGACY = Pattern.compile("ACC[0-9A-F]{10}");
+
+    @Autowired
+    private AccountNumberCounterRepository accountNumberCounterRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.accounts.number-block-size:1000}")
+    private int blockSize = 1000;
+
+    private TransactionTemplate reservation;
+
+    // Pas de synchronized : un thread virtuel qui réserve une plage resterait épinglé pendant l'accès JDBC
+    private final ReentrantLock lock = new ReentrantLock();
+    private long next;
+    private long end;
+
+    @PostConstruct
+    public void init() {
+        // Transaction séparée et courte : la plage reste réservée même si l'inscription échoue
+        reservation = new TransactionTemplate(transactionManager);
+        reservation.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public String generate() {
+        long value;
+        lock.lock();
+        try {
+            if (next == end) {
+                next = reserveBlock(blockSize);
+                end = next + blockSize;
+            }
+            value = next++;
+        } finally {
+            lock.unlock();
+        }
+        if (value > MAX_VALUE) {
+            throw new IllegalStateException("Plus aucun numéro de compte disponible");
+        }
+        return format(value);
+    }
+
+    /** Réserve {@code size} numéros consécutifs et renvoie le premier. */
+    protected long reserveBlock(int size) {
+        try {
+            return reservation.execute(status -> advance(size));
+        } catch (DataAccessException e) {
+            // Premier accès : deux instances ont pu créer le compteur en même temps, il existe désormais
+            return reservation.execute(status -> advance(size));
+        }
+    }
+
+    private long advance(int size) {
+        AccountNumberCounter counter = accountNumberCounterRepository.findByIdForUpdate(AccountNumberCounter.SINGLETON_ID)
+                .orElseGet(() -> accountNumberCounterRepository.saveAndFlush(
+                        new AccountNumberCounter(AccountNumberCounter.SINGLETON_ID, 1L)));
+        long first = counter.getNextValue();
+        counter.setNextValue(first + size);
+        return first;
+    }
+
+    /**
+     * Contrôle de forme, sans accès à la base : une faute de frappe sur un chiffre
+     * ou l'inversion de deux chiffres voisins est détectée par le chiffre de contrôle.
+     */
+    public static boolean isValid(String accountNumber) {
+        if (accountNumber == null) {
+            return false;
+        }
+        if (accountNumber.length() == PREFIX.length() + DIGITS + 1 && accountNumber.startsWith(PREFIX)) {
+            for (int i = PREFIX.length(); i < accountNumber.length(); i++) {
+                char c = accountNumber.charAt(i);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+            }
+            int last = accountNumber.length() - 1;
+            return checkDigit(accountNumber, PREFIX.length(), last) == accountNumber.charAt(last) - '0';
+        }
+        return LEGACY.matcher(accountNumber).matches();
+    }
+
+    static String format(long value) {
+        char[] chars = new char[PREFIX.length() + DIGITS + 1];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = PREFIX.length() + DIGITS - 1; i >= PREFIX.length(); i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        int last = chars.length - 1;
+        chars[last] = (char) ('0' + checkDigit(CharBuffer.wrap(chars), PREFIX.length(), last));
+        return new String(chars);
+    }
+
+    // Luhn sur les chiffres [from, to) : un chiffre sur deux doublé en partant de la droite
+    private static int checkDigit(CharSequence digits, int from, int to) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = to - 1; i >= from; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -1,31 +1,241 @@
 package com.moneytransfer.MoneyTransferApplication.service;
 
+import com.moneytransfer.MoneyTransferApplication.config.CacheConfig;
+import com.moneytransfer.MoneyTransferApplication.dto.AccountView;
 import com.moneytransfer.MoneyTransferApplication.entity.Account;
+import com.moneytransfer.MoneyTransferApplication.entity.AccountSlot;
 import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountSlotRepository;
+import com.moneytransfer.MoneyTransferApplication.service.journal.JournalService;
+import com.moneytransfer.MoneyTransferApplication.service.versions.UserVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class AccountService {
 
+    // Ce qui ne change pas d'un transfert à l'autre : peut être mis en cache sans risque de solde périmé
+    public record AccountRef(Long id, String accountNumber, int slotCount) {
+        public boolean isSharded() {
+            return slotCount > 1;
+        }
+    }
+
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private AccountSlotRepository accountSlotRepository;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private UserVersionService userVersionService;
+
+    @Value("${app.accounts.max-slots:64}")
+    private int maxSlots;
+
+    // Le solde initial est la première écriture du journal du compte
+    @Transactional
     public void createAccount(Account account) {
         accountRepository.save(account);
+        journalService.open(account.getId(), account.getBalance());
+        userVersionService.changed(List.of(account.getUser().getId()));
     }
 
+    @Transactional(readOnly = true)
     public List<Account> getAccountsByUserId(Long userId) {
-        return accountRepository.findByUserId(userId);
+        List<Account> accounts = accountRepository.findByUserId(userId);
+        accounts.forEach(this::loadSlotsBalance);
+        return accounts;
+    }
+
+    // Vues pour l'API : une seule requête, sous-soldes compris
+    @Transactional(readOnly = true)
+    public List<AccountView> getAccountViews(String email) {
+        return accountRepository.findViewsByUserEmail(email);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<AccountView> getAccountView(String accountNumber) {
+        return accountRepository.findViewByAccountNumber(accountNumber);
+    }
+
+    // Relu juste après un commit : hors transaction readOnly, donc jamais sur un réplica en retard
+    public Optional<AccountView> getCurrentAccountView(String accountNumber) {
+        return accountRepository.findViewByAccountNumber(accountNumber);
+    }
+
+    // À appeler dans une transaction : les comptes restent verrouillés jusqu'au commit
+    public Map<String, Account> lockAccountsByNumbers(Collection<String> accountNumbers) {
+        Map<String, Account> accounts = new HashMap<>();
+        for (Account account : accountRepository.findByAccountNumberInForUpdate(accountNumbers)) {
+            accounts.put(account.getAccountNumber(), account);
+        }
+        return accounts;
     }
 
     public Optional<Account> getAccountByNumber(String accountNumber) {
         return accountRepository.findByAccountNumber(accountNumber);
     }
 
+    @Cacheable(cacheNames = CacheConfig.ACCOUNT_REFS, key = "#accountNumber", unless = "#result == null")
+    public Optional<AccountRef> getAccountRef(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .map(account -> new AccountRef(account.getId(), account.getAccountNumber(),
+                        account.isSharded() ? account.getSlotCount() : 1));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.ACCOUNT_OWNERS, key = "#accountNumber", unless = "#result == null")
+    public Optional<String> getOwnerEmail(String accountNumber) {
+        return accountRepository.findOwnerEmailByAccountNumber(accountNumber);
+    }
+
+    // Solde toujours relu en base : le cache ne sert qu'à trouver l'identifiant
+    public Optional<Account> getAccountById(Long id) {
+        return accountRepository.findById(id);
+    }
+
+    // Instance non chargée, suffisante pour référencer le compte dans un transfert
+    public Account getAccountReference(AccountRef ref) {
+        Account account = new Account(ref.accountNumber(), null, null);
+        account.setId(ref.id());
+        account.setSlotCount(ref.slotCount());
+        return account;
+    }
+
+    // Variante destinée à l'affichage : inclut la somme des sous-soldes
+    public Optional<Account> getAccountWithBalance(String accountNumber) {
+        return getAccountByNumber(accountNumber).map(this::loadSlotsBalance);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNT_REFS, key = "#account.accountNumber")
     public void updateAccount(Account account) {
         accountRepository.save(account);
     }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNT_REFS, key = "#account.accountNumber")
+    public Account enableSharding(Account account, int slotCount) {
+        if (slotCount < 2 || slotCount > maxSlots) {
+            throw new RuntimeException("Le nombre de sous-soldes doit être compris entre 2 et " + maxSlots);
+        }
+        if (account.isSharded() && account.getSlotCount() >= slotCount) {
+            throw new RuntimeException("Le compte possède déjà " + account.getSlotCount() + " sous-soldes");
+        }
+
+        // Les slots existants sont conservés, seuls les nouveaux sont créés
+        int existing = (int) accountSlotRepository.countByAccountId(account.getId());
+        for (int i = existing; i < slotCount; i++) {
+            accountSlotRepository.save(new AccountSlot(account, i));
+        }
+        account.setSlotCount(slotCount);
+        accountRepository.save(account);
+        userVersionService.changed(List.of(account.getUser().getId()));
+        return loadSlotsBalance(account);
+    }
+
+    @Transactional
+    public void debit(AccountRef ref, BigDecimal amount) {
+        if (!tryDebit(ref, amount)) {
+            throw new TransferRejectedException(TransferRejectedException.Reason.INSUFFICIENT_FUNDS, "Solde insuffisant");
+        }
+    }
+
+    /**
+     * Débit en une seule instruction, sans charger le compte : le contrôle du solde et la
+     * décrémentation sont atomiques en base, le nombre de lignes modifiées fait foi.
+     */
+    @Transactional
+    public boolean tryDebit(AccountRef ref, BigDecimal amount) {
+        if (accountRepository.debitIfSufficient(ref.id(), amount) == 1) {
+            return true;
+        }
+        // Solde principal insuffisant : on rapatrie les sous-soldes, puis on retente
+        return ref.isSharded()
+                && sweepSlots(ref.id())
+                && accountRepository.debitIfSufficient(ref.id(), amount) == 1;
+    }
+
+    // Compte déjà verrouillé et chargé (lots) ; sans exception : un refus ne marque pas la transaction en rollback-only
+    @Transactional
+    public boolean tryDebit(Account account, BigDecimal amount) {
+        // Les sous-soldes ne sont rapatriés que si le solde principal ne suffit pas
+        if (account.isSharded() && account.getBalance().compareTo(amount) < 0) {
+            sweepSlots(account);
+        }
+
+        if (account.getBalance().compareTo(amount) < 0) {
+            return false;
+        }
+
+        account.setBalance(account.getBalance().subtract(amount));
+        accountRepository.save(account);
+        return true;
+    }
+
+    @Transactional
+    public void credit(Account account, BigDecimal amount) {
+        if (account.isSharded()) {
+            // Un slot au hasard : les crédits concurrents ne verrouillent pas la même ligne
+            int slot = ThreadLocalRandom.current().nextInt(account.getSlotCount());
+            accountSlotRepository.credit(account.getId(), slot, amount);
+            return;
+        }
+
+        account.setBalance(account.getBalance().add(amount));
+        accountRepository.save(account);
+    }
+
+    // Crédit sans charger le compte : un seul UPDATE, sur la ligne du compte ou sur un sous-solde
+    @Transactional
+    public void credit(AccountRef ref, BigDecimal amount) {
+        if (ref.isSharded()) {
+            int slot = ThreadLocalRandom.current().nextInt(ref.slotCount());
+            accountSlotRepository.credit(ref.id(), slot, amount);
+            return;
+        }
+        accountRepository.applyDelta(ref.id(), amount);
+    }
+
+    private boolean sweepSlots(Long accountId) {
+        BigDecimal swept = BigDecimal.ZERO;
+        for (AccountSlot slot : accountSlotRepository.findNonEmptyForUpdate(accountId)) {
+            swept = swept.add(slot.getBalance());
+            slot.setBalance(BigDecimal.ZERO);
+        }
+        if (swept.signum() == 0) {
+            return false;
+        }
+        accountRepository.applyDelta(accountId, swept);
+        return true;
+    }
+
+    private void sweepSlots(Account account) {
+        BigDecimal swept = BigDecimal.ZERO;
+        for (AccountSlot slot : accountSlotRepository.findNonEmptyForUpdate(account.getId())) {
+            swept = swept.add(slot.getBalance());
+            slot.setBalance(BigDecimal.ZERO);
+        }
+        account.setBalance(account.getBalance().add(swept));
+    }
+
+    private Account loadSlotsBalance(Account account) {
+        if (account.isSharded()) {
+            account.setSlotsBalance(accountSlotRepository.sumBalanceByAccountId(account.getId()));
+        }
+        return account;
+    }
 }
@@ -1,5 +1,6 @@
 package com.moneytransfer.MoneyTransferApplication.service;
 
+import com.moneytransfer.MoneyTransferApplication.config.CacheConfig;
 import com.moneytransfer.MoneyTransferApplication.dto.LoginRequest;
 import com.moneytransfer.MoneyTransferApplication.dto.RegisterRequest;
 import com.moneytransfer.MoneyTransferApplication.entity.Account;
@@ -7,6 +8,7 @@ import com.moneytransfer.MoneyTransferApplication.entity.User;
 import com.moneytransfer.MoneyTransferApplication.repository.UserRepository;
 import com.moneytransfer.MoneyTransferApplication.security.JwtTokenProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -16,11 +18,12 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 @Service
 public class AuthService {
 
+    public static final BigDecimal WELCOME_BALANCE = new BigDecimal("1000.00");
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
@@ -36,6 +39,9 @@ public class AuthService {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private AccountNumberGenerator accountNumberGenerator;
+
     public Map<String, Object> login(LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
@@ -45,9 +51,8 @@ public class AuthService {
         );
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.generateToken(authentication);
-
         User user = userRepository.findByEmail(loginRequest.getEmail()).orElseThrow();
+        String jwt = tokenProvider.generateToken(authentication, user.getId());
 
         Map<String, Object> response = new HashMap<>();
         response.put("token", jwt);
@@ -56,14 +61,30 @@ public class AuthService {
         return response;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.USERS_BY_EMAIL, key = "#registerRequest.email")
     public User register(RegisterRequest registerRequest) {
         if (userRepository.existsByEmail(registerRequest.getEmail())) {
             throw new RuntimeException("Email déjà utilisé");
         }
 
+        User user = newUser(registerRequest, passwordEncoder.encode(registerRequest.getPassword()));
+        User savedUser = userRepository.save(user);
+
+        // Créer un compte par défaut avec 1000 EUR
+        String accountNumber = accountNumberGenerator.generate();
+        Account defaultAccount = new Account(accountNumber, WELCOME_BALANCE, savedUser);
+        accountService.createAccount(defaultAccount);
+
+        return savedUser;
+    }
+
+    // Partagé avec l'import en masse, qui hache les mots de passe de son côté
+    public User newUser(RegisterRequest registerRequest, String encodedPassword) {
         User user = new User();
         user.setEmail(registerRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+        // Colonne obligatoire et unique : l'email sert d'identifiant de connexion
+        user.setUsername(registerRequest.getEmail());
+        user.setPassword(encodedPassword);
         user.setFirstName(registerRequest.getFirstName());
         user.setLastName(registerRequest.getLastName());
         user.setCountry(registerRequest.getCountry());
@@ -71,20 +92,13 @@ public class AuthService {
         user.setProfilePhoto(registerRequest.getProfilePhoto());
         user.setIdNumber(registerRequest.getIdNumber());
         user.setIdPhoto(registerRequest.getIdPhoto());
-
-
-        User savedUser = userRepository.save(user);
-
-        // Créer un compte par défaut avec 1000 EUR
-        String accountNumber = generateAccountNumber();
-        Account defaultAccount = new Account(accountNumber, new BigDecimal("1000.00"), savedUser);
-        accountService.createAccount(defaultAccount);
-
-        return savedUser;
+        return user;
     }
 
-    private String generateAccountNumber() {
-        return "ACC" + UUID.randomUUID().toString().replace("-", "").substring(0, 10).toUpperCase();
+    public boolean isAdmin(String email) {
+        return userRepository.findCredentialsByEmail(email)
+                .map(user -> user.role() == User.Role.ADMIN)
+                .orElse(false);
     }
 
     private Map<String, Object> getUserInfo(User user) {
@@ -0,0 +1,145 @@
+package com.moneytransfer.MoneyTransferApplication.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moneytransfer.MoneyTransferApplication.dto.TransferExportRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Export de l'historique d'un compte, écrit ligne par ligne dans la réponse HTTP
+ * au fur et à mesure de la lecture du curseur : la mémoire utilisée ne dépend pas
+ * du nombre de transferts.
+ */
+@Service
+public class TransferExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format from(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new RuntimeException("Format d'export non supporté : " + value);
+        }
+    }
+
+    private static final String CSV_HEADER = "id,createdAt,fromAccountNumber,toAccountNumber,amount,description,status";
+
+    // Vider le tampon régulièrement pour que le client reçoive les données en continu
+    private static final int FLUSH_EVERY = 1000;
+
+    private static final String EXPORT_QUERY = "SELECT new com.moneytransfer.MoneyTransferApplication.dto.TransferExportRow(" +
+            "t.id, t.createdAt, f.accountNumber, d.accountNumber, t.amount, t.description, t.status) " +
+            "FROM Transfer t JOIN t.fromAccount f JOIN t.toAccount d " +
+            "WHERE f.id = :accountId OR d.id = :accountId ORDER BY t.createdAt DESC, t.id DESC";
+
+    // Taille de paquet propre à cette requête (les autres gardent le comportement par défaut du pilote) :
+    // Integer.MIN_VALUE fait lire le résultat MySQL en flux, ligne par ligne ; valeur positive pour les autres bases
+    @Value("${app.export.fetch-size:" + Integer.MIN_VALUE + "}")
+    private int fetchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public TransferExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void export(Long accountId, Format format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        // Le flux doit être consommé dans la transaction qui a ouvert le curseur
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<TransferExportRow> rows = streamRows(accountId)) {
+                    int[] written = {0};
+                    rows.forEach(row -> {
+                        try {
+                            writer.write(format == Format.CSV ? toCsv(row) : objectMapper.writeValueAsString(row));
+                            writer.write('\n');
+                            if (++written[0] % FLUSH_EVERY == 0) {
+                                writer.flush();
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    // Curseur JDBC en avant seulement ; projections non gérées : le contexte de persistance reste vide
+    private Stream<TransferExportRow> streamRows(Long accountId) {
+        return entityManager.createQuery(EXPORT_QUERY, TransferExportRow.class)
+                .setParameter("accountId", accountId)
+                .setHint(HINT_FETCH_SIZE, fetchSize)
+                .setHint(HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private String toCsv(TransferExportRow row) {
+        return row.id() + "," + row.createdAt() + "," + csv(row.fromAccountNumber()) + ","
+                + csv(row.toAccountNumber()) + "," + row.amount().toPlainString() + ","
+                + csv(row.description()) + "," + row.status();
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
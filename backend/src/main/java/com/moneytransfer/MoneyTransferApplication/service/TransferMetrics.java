@@ -0,0 +1,108 @@
+package com.moneytransfer.MoneyTransferApplication.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesures du pipeline de transfert, publiées par l'actuator :
+ * transfers (durée totale par issue), transfers.stage (durée par étape, moteur jpa)
+ * et transfers.rejected (refus par motif).
+ * Les compteurs sont créés au démarrage : sur le chemin critique, un enregistrement
+ * coûte un System.nanoTime() et quelques additions atomiques.
+ */
+@Component
+public class TransferMetrics {
+
+    // Avec JPA, les UPDATE/INSERT en attente partent au flush : leur coût SQL peut apparaître dans l'étape suivante ou au commit
+    public enum Stage {
+        LOOKUP,
+        DEBIT,
+        CREDIT,
+        INSERT,
+        JOURNAL,
+        TIMELINE,
+        TOTALS,
+        COMMIT
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.transfers.engine:jpa}")
+    private String engine;
+
+    private final Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+    private final Map<TransferRejectedException.Reason, Counter> rejections =
+            new EnumMap<>(TransferRejectedException.Reason.class);
+    private Timer succeeded;
+    private Timer rejected;
+    private Timer failed;
+
+    @PostConstruct
+    public void init() {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, Timer.builder("transfers.stage")
+                    .description("Durée de chaque étape d'un transfert")
+                    .tag("stage", tagValue(stage))
+                    .register(meterRegistry));
+        }
+        for (TransferRejectedException.Reason reason : TransferRejectedException.Reason.values()) {
+            rejections.put(reason, Counter.builder("transfers.rejected")
+                    .description("Transferts refusés, par motif")
+                    .tag("reason", tagValue(reason))
+                    .register(meterRegistry));
+        }
+        succeeded = transferTimer("success");
+        rejected = transferTimer("rejected");
+        failed = transferTimer("error");
+    }
+
+    /** Enregistre la durée de l'étape depuis {@code since} et renvoie l'instant courant, début de l'étape suivante. */
+    public long stage(Stage stage, long since) {
+        long now = System.nanoTime();
+        stages.get(stage).record(now - since, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    public void succeeded(long since) {
+        succeeded.record(System.nanoTime() - since, TimeUnit.NANOSECONDS);
+    }
+
+    public void failed(long since, RuntimeException e) {
+        if (e instanceof TransferRejectedException rejection) {
+            rejected(since, rejection.getReason());
+        } else {
+            failed.record(System.nanoTime() - since, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void rejected(long since, TransferRejectedException.Reason reason) {
+        rejected.record(System.nanoTime() - since, TimeUnit.NANOSECONDS);
+        rejected(reason);
+    }
+
+    public void rejected(TransferRejectedException.Reason reason) {
+        rejections.get(reason).increment();
+    }
+
+    private Timer transferTimer(String outcome) {
+        return Timer.builder("transfers")
+                .description("Durée totale d'un transfert unitaire")
+                .tag("engine", engine)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
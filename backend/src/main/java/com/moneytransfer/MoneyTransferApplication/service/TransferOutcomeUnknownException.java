@@ -0,0 +1,10 @@
+package com.moneytransfer.MoneyTransferApplication.service;
+
+// Pas de réponse à temps : le transfert a pu être appliqué ou non, le client doit consulter son historique
+// (ou renvoyer la requête avec la même clé d'idempotence) avant de réessayer
+public class TransferOutcomeUnknownException extends RuntimeException {
+
+    public TransferOutcomeUnknownException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.moneytransfer.MoneyTransferApplication.service;
+
+import lombok.Getter;
+
+// Transfert refusé pour une raison métier (et non sur une erreur technique) ; le motif alimente les métriques
+@Getter
+public class TransferRejectedException extends RuntimeException {
+
+    public enum Reason {
+        UNKNOWN_ACCOUNT,
+        INSUFFICIENT_FUNDS,
+        INVALID_REQUEST,
+        SATURATED
+    }
+
+    private final Reason reason;
+
+    public TransferRejectedException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+}
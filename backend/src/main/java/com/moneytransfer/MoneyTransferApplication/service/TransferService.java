@@ -1,13 +1,37 @@
 package com.moneytransfer.MoneyTransferApplication.service;
 
+import com.moneytransfer.MoneyTransferApplication.dto.TransferCursor;
+import com.moneytransfer.MoneyTransferApplication.dto.TransferPage;
 import com.moneytransfer.MoneyTransferApplication.dto.TransferRequest;
+import com.moneytransfer.MoneyTransferApplication.dto.TransferResult;
+import com.moneytransfer.MoneyTransferApplication.dto.TransferView;
 import com.moneytransfer.MoneyTransferApplication.entity.Account;
 import com.moneytransfer.MoneyTransferApplication.entity.Transfer;
 import com.moneytransfer.MoneyTransferApplication.repository.TransferRepository;
+import com.moneytransfer.MoneyTransferApplication.service.TransferMetrics.Stage;
+import com.moneytransfer.MoneyTransferApplication.service.TransferRejectedException.Reason;
+import com.moneytransfer.MoneyTransferApplication.service.async.AsyncTransferPipeline;
+import com.moneytransfer.MoneyTransferApplication.service.events.TransferEventBroker;
+import com.moneytransfer.MoneyTransferApplication.service.journal.JournalService;
+import com.moneytransfer.MoneyTransferApplication.service.timeline.TimelineService;
+import com.moneytransfer.MoneyTransferApplication.service.totals.DailyTotalsService;
+import com.moneytransfer.MoneyTransferApplication.service.versions.UserVersionService;
+import com.moneytransfer.MoneyTransferApplication.service.ledger.LedgerEngine;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class TransferService {
@@ -18,35 +42,328 @@ public class TransferService {
     @Autowired
     private AccountService accountService;
 
-    @Transactional
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private TransferEventBroker transferEventBroker;
+
+    @Autowired
+    private TransferMetrics transferMetrics;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private DailyTotalsService dailyTotalsService;
+
+    @Autowired
+    private UserVersionService userVersionService;
+
+    @Value("${app.transfers.batch.max-size:10000}")
+    private int batchMaxSize;
+
+    @Value("${app.transfers.batch.chunk-size:1000}")
+    private int batchChunkSize;
+
+    @Value("${app.transfers.page.max-size:100}")
+    private int pageMaxSize;
+
+    // Présent uniquement si app.transfers.engine=ledger
+    @Autowired(required = false)
+    private LedgerEngine ledgerEngine;
+
+    // Présent uniquement si app.transfers.async.enabled=true (moteur jpa)
+    @Autowired(required = false)
+    private AsyncTransferPipeline asyncTransferPipeline;
+
+    /**
+     * Point d'entrée de POST /api/transfers : en mode asynchrone, le transfert est renvoyé
+     * au statut PENDING dès son enregistrement ; sinon il est exécuté immédiatement.
+     */
+    public Transfer submitTransfer(TransferRequest transferRequest) {
+        if (asyncTransferPipeline != null) {
+            return asyncTransferPipeline.submit(transferRequest);
+        }
+        return createTransfer(transferRequest);
+    }
+
     public Transfer createTransfer(TransferRequest transferRequest) {
-        Account fromAccount = accountService.getAccountByNumber(transferRequest.getFromAccountNumber())
-                .orElseThrow(() -> new RuntimeException("Compte source introuvable"));
+        long start = System.nanoTime();
+        Transfer transfer;
+        try {
+            if (ledgerEngine != null) {
+                transfer = ledgerEngine.transfer(transferRequest);
+            } else {
+                // Pas de @Transactional ici : le moteur en mémoire n'a pas besoin de connexion
+                long[] applied = new long[1];
+                transfer = transactionTemplate.execute(status -> {
+                    Transfer created = applyTransfer(transferRequest);
+                    applied[0] = System.nanoTime();
+                    return created;
+                });
+                transferMetrics.stage(Stage.COMMIT, applied[0]);
+            }
+        } catch (RuntimeException e) {
+            transferMetrics.failed(start, e);
+            throw e;
+        }
+        transferMetrics.succeeded(start);
+        notifySubscribers(transfer);
+        return transfer;
+    }
+
+    // Après validation uniquement : les abonnés ne voient jamais un transfert annulé
+    private void notifySubscribers(Transfer transfer) {
+        if (ledgerEngine != null) {
+            // La base est en retard sur le ledger : on pousse les soldes calculés en mémoire
+            transferEventBroker.publish(transfer,
+                    transfer.getFromAccount().getBalance(), transfer.getToAccount().getBalance());
+        } else {
+            transferEventBroker.publish(transfer, null, null);
+        }
+    }
+
+    /**
+     * Transfert unitaire en trois instructions : débit conditionnel, crédit par incrément
+     * et insertion du transfert, plus les deux écritures du journal envoyées en un batch
+     * et les lignes de la timeline des participants, puis les cumuls journaliers.
+     * Aucun compte n'est chargé ; les identifiants viennent du cache.
+     */
+    private Transfer applyTransfer(TransferRequest transferRequest) {
+        long stageStart = System.nanoTime();
+        AccountService.AccountRef fromRef = accountService.getAccountRef(transferRequest.getFromAccountNumber())
+                .orElseThrow(() -> unknownAccount("Compte source introuvable"));
+
+        AccountService.AccountRef toRef = accountService.getAccountRef(transferRequest.getToAccountNumber())
+                .orElseThrow(() -> unknownAccount("Compte destinataire introuvable"));
+        stageStart = transferMetrics.stage(Stage.LOOKUP, stageStart);
+
+        // Lignes verrouillées dans l'ordre des identifiants : deux transferts croisés (A→B, B→A) ne s'interbloquent pas.
+        // Un débit refusé après le crédit annule toute la transaction.
+        BigDecimal amount = transferRequest.getAmount();
+        if (fromRef.id() <= toRef.id()) {
+            accountService.debit(fromRef, amount);
+            stageStart = transferMetrics.stage(Stage.DEBIT, stageStart);
+            accountService.credit(toRef, amount);
+            stageStart = transferMetrics.stage(Stage.CREDIT, stageStart);
+        } else {
+            accountService.credit(toRef, amount);
+            stageStart = transferMetrics.stage(Stage.CREDIT, stageStart);
+            accountService.debit(fromRef, amount);
+            stageStart = transferMetrics.stage(Stage.DEBIT, stageStart);
+        }
+
+        Transfer transfer = new Transfer(accountService.getAccountReference(fromRef),
+                accountService.getAccountReference(toRef), amount, transferRequest.getDescription());
+        transfer = transferRepository.save(transfer);
+        stageStart = transferMetrics.stage(Stage.INSERT, stageStart);
+        journalService.record(List.of(transfer));
+        stageStart = transferMetrics.stage(Stage.JOURNAL, stageStart);
+        timelineService.record(List.of(transfer));
+        stageStart = transferMetrics.stage(Stage.TIMELINE, stageStart);
+        dailyTotalsService.record(List.of(transfer));
+        transferMetrics.stage(Stage.TOTALS, stageStart);
+        userVersionService.record(List.of(transfer));
+        return transfer;
+    }
 
-        Account toAccount = accountService.getAccountByNumber(transferRequest.getToAccountNumber())
-                .orElseThrow(() -> new RuntimeException("Compte destinataire introuvable"));
+    private static TransferRejectedException unknownAccount(String message) {
+        return new TransferRejectedException(Reason.UNKNOWN_ACCOUNT, message);
+    }
+
+    /**
+     * Applique un lot de transferts par tranches, chacune dans sa propre transaction.
+     * Un élément invalide ou refusé est signalé sans interrompre le reste du lot ;
+     * une erreur technique annule uniquement la tranche concernée.
+     */
+    public List<TransferResult> createTransfers(List<TransferRequest> transferRequests) {
+        if (transferRequests.isEmpty() || transferRequests.size() > batchMaxSize) {
+            throw new RuntimeException("Le lot doit contenir entre 1 et " + batchMaxSize + " transferts");
+        }
+
+        List<TransferResult> results = new ArrayList<>(transferRequests.size());
+        for (int start = 0; start < transferRequests.size(); start += batchChunkSize) {
+            int end = Math.min(start + batchChunkSize, transferRequests.size());
+            int offset = start;
+            List<TransferRequest> chunk = transferRequests.subList(start, end);
+
+            if (ledgerEngine != null) {
+                results.addAll(submitToLedger(chunk, offset));
+                continue;
+            }
+            try {
+                List<Transfer> committed = new ArrayList<>();
+                results.addAll(transactionTemplate.execute(status -> applyTransfers(chunk, offset, committed)));
+                committed.forEach(this::notifySubscribers);
+            } catch (RuntimeException e) {
+                for (int i = start; i < end; i++) {
+                    results.add(TransferResult.failed(i, "Tranche annulée : " + e.getMessage()));
+                }
+            }
+        }
+        return results;
+    }
+
+    private List<TransferResult> applyTransfers(List<TransferRequest> chunk, int offset, List<Transfer> committed) {
+        // Tous les comptes de la tranche en une seule requête, verrouillés jusqu'au commit de la tranche
+        Set<String> accountNumbers = new HashSet<>();
+        for (TransferRequest transferRequest : chunk) {
+            if (transferRequest != null) {
+                accountNumbers.add(transferRequest.getFromAccountNumber());
+                accountNumbers.add(transferRequest.getToAccountNumber());
+            }
+        }
+        accountNumbers.remove(null);
+        Map<String, Account> accounts = accountService.lockAccountsByNumbers(accountNumbers);
 
-        if (fromAccount.getBalance().compareTo(transferRequest.getAmount()) < 0) {
-            throw new RuntimeException("Solde insuffisant");
+        List<TransferResult> results = new ArrayList<>(chunk.size());
+        List<Transfer> transfers = new ArrayList<>();
+        List<TransferResult> succeeded = new ArrayList<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            TransferRequest transferRequest = chunk.get(i);
+            int index = offset + i;
+
+            String error = validate(transferRequest);
+            if (error != null) {
+                results.add(rejected(index, Reason.INVALID_REQUEST, error));
+                continue;
+            }
+
+            Account fromAccount = accounts.get(transferRequest.getFromAccountNumber());
+            if (fromAccount == null) {
+                results.add(rejected(index, Reason.UNKNOWN_ACCOUNT, "Compte source introuvable"));
+                continue;
+            }
+            Account toAccount = accounts.get(transferRequest.getToAccountNumber());
+            if (toAccount == null) {
+                results.add(rejected(index, Reason.UNKNOWN_ACCOUNT, "Compte destinataire introuvable"));
+                continue;
+            }
+            if (!accountService.tryDebit(fromAccount, transferRequest.getAmount())) {
+                results.add(rejected(index, Reason.INSUFFICIENT_FUNDS, "Solde insuffisant"));
+                continue;
+            }
+            accountService.credit(toAccount, transferRequest.getAmount());
+
+            transfers.add(new Transfer(fromAccount, toAccount, transferRequest.getAmount(), transferRequest.getDescription()));
+            TransferResult result = new TransferResult(index, true, "Transfert effectué", null);
+            succeeded.add(result);
+            results.add(result);
         }
 
-        // Débiter le compte source
-        fromAccount.setBalance(fromAccount.getBalance().subtract(transferRequest.getAmount()));
-        accountService.updateAccount(fromAccount);
+        // Insertions regroupées en batch JDBC (ids pré-alloués par la séquence)
+        transferRepository.saveAll(transfers);
+        journalService.record(transfers);
+        timelineService.record(transfers);
+        dailyTotalsService.record(transfers);
+        userVersionService.record(transfers);
+        for (int i = 0; i < transfers.size(); i++) {
+            succeeded.get(i).setTransferId(transfers.get(i).getId());
+        }
+        committed.addAll(transfers);
+        return results;
+    }
 
-        // Créditer le compte destinataire
-        toAccount.setBalance(toAccount.getBalance().add(transferRequest.getAmount()));
-        accountService.updateAccount(toAccount);
+    private List<TransferResult> submitToLedger(List<TransferRequest> chunk, int offset) {
+        List<TransferResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            TransferRequest transferRequest = chunk.get(i);
+            String error = validate(transferRequest);
+            if (error != null) {
+                results.add(rejected(offset + i, Reason.INVALID_REQUEST, error));
+                continue;
+            }
+            try {
+                notifySubscribers(ledgerEngine.transfer(transferRequest));
+                results.add(new TransferResult(offset + i, true, "Transfert effectué", null));
+            } catch (RuntimeException e) {
+                if (e instanceof TransferRejectedException rejection) {
+                    transferMetrics.rejected(rejection.getReason());
+                }
+                results.add(TransferResult.failed(offset + i, e.getMessage()));
+            }
+        }
+        return results;
+    }
 
-        // Enregistrer le transfert
-        Transfer transfer = new Transfer(fromAccount, toAccount, transferRequest.getAmount(), transferRequest.getDescription());
-        return transferRepository.save(transfer);
+    private TransferResult rejected(int index, Reason reason, String message) {
+        transferMetrics.rejected(reason);
+        return TransferResult.failed(index, message);
     }
 
+    private String validate(TransferRequest transferRequest) {
+        if (transferRequest == null) {
+            return "Transfert vide";
+        }
+        Set<ConstraintViolation<TransferRequest>> violations = validator.validate(transferRequest);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        ConstraintViolation<TransferRequest> violation = violations.iterator().next();
+        return violation.getPropertyPath() + " : " + violation.getMessage();
+    }
+
+    @Transactional(readOnly = true)
+    public List<TransferView> getTransferViews(String email) {
+        return transferRepository.findViewsByUserEmail(email);
+    }
+
+    // Visible uniquement par les titulaires des comptes émetteur et destinataire.
+    // Pas de readOnly : relu juste après un envoi asynchrone, il doit voir le primaire
+    public Optional<TransferView> getTransferView(Long id, String email) {
+        return transferRepository.findViewById(id)
+                .filter(transfer -> isOwner(transfer.fromAccount(), email) || isOwner(transfer.toAccount(), email));
+    }
+
+    public Optional<String> getFailureReason(Long id) {
+        return transferRepository.findFailureReasonById(id);
+    }
+
+    private boolean isOwner(TransferView.Party party, String email) {
+        return accountService.getOwnerEmail(party.accountNumber()).filter(email::equals).isPresent();
+    }
+
+    @Transactional(readOnly = true)
     public List<Transfer> getTransfersByUserId(Long userId) {
         return transferRepository.findByUserId(userId);
     }
 
+    /**
+     * Historique paginé par curseur sur (createdAt, id) : chaque page repart de la
+     * position encodée dans le curseur, quel que soit le nombre de pages déjà lues.
+     */
+    @Transactional(readOnly = true)
+    public TransferPage<TransferView> getTransferPage(String email, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, pageMaxSize));
+
+        // Un élément de plus que la page pour savoir s'il reste une suite
+        PageRequest window = PageRequest.of(0, limit + 1);
+        List<TransferView> transfers;
+        if (cursor == null || cursor.isBlank()) {
+            transfers = transferRepository.findFirstPageByUserEmail(email, window);
+        } else {
+            TransferCursor position = TransferCursor.decode(cursor);
+            transfers = transferRepository.findPageByUserEmail(email, position.createdAt(), position.id(), window);
+        }
+
+        String nextCursor = null;
+        if (transfers.size() > limit) {
+            transfers = transfers.subList(0, limit);
+            TransferView last = transfers.get(limit - 1);
+            nextCursor = new TransferCursor(last.createdAt(), last.id()).encode();
+        }
+        return new TransferPage<>(transfers, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
     public List<Transfer> getTransfersByAccountId(Long accountId) {
         return transferRepository.findByFromAccountIdOrToAccountIdOrderByCreatedAtDesc(accountId, accountId);
     }
@@ -0,0 +1,402 @@
+package com.moneytransfer.MoneyTransferApplication.service.async;
+
+import com.moneytransfer.MoneyTransferApplication.dto.TransferRequest;
+import com.moneytransfer.MoneyTransferApplication.dto.TransferView;
+import com.moneytransfer.MoneyTransferApplication.entity.Account;
+import com.moneytransfer.MoneyTransferApplication.entity.Transfer;
+import com.moneytransfer.MoneyTransferApplication.entity.Transfer.TransferStatus;
+import com.moneytransfer.MoneyTransferApplication.repository.TransferRepository;
+import com.moneytransfer.MoneyTransferApplication.service.AccountService;
+import com.moneytransfer.MoneyTransferApplication.service.AccountService.AccountRef;
+import com.moneytransfer.MoneyTransferApplication.service.TransferMetrics;
+import com.moneytransfer.MoneyTransferApplication.service.TransferOutcomeUnknownException;
+import com.moneytransfer.MoneyTransferApplication.service.TransferRejectedException;
+import com.moneytransfer.MoneyTransferApplication.service.TransferRejectedException.Reason;
+import com.moneytransfer.MoneyTransferApplication.service.events.TransferEventBroker;
+import com.moneytransfer.MoneyTransferApplication.service.journal.JournalService;
+import com.moneytransfer.MoneyTransferApplication.service.timeline.TimelineService;
+import com.moneytransfer.MoneyTransferApplication.service.totals.DailyTotalsService;
+import com.moneytransfer.MoneyTransferApplication.service.versions.UserVersionService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Transferts asynchrones (app.transfers.async.enabled=true, moteur jpa).
+ *
+ * Deux étapes, chacune tenue par un unique thread qui regroupe ce qui s'est accumulé
+ * pendant la transaction précédente :
+ * - acceptation : les transferts soumis sont insérés au statut PENDING en une transaction,
+ *   puis les requêtes en attente reçoivent leur identifiant (réponse 202) ;
+ * - application : un groupe de transferts en attente est appliqué en une transaction, comptes
+ *   verrouillés dans l'ordre des identifiants, et chaque transfert passe à COMPLETED ou FAILED.
+ * Le débit soutenu ne dépend plus d'un commit par transfert. Un transfert dont l'application
+ * échoue est rejoué au plus max-attempts fois, puis passe à FAILED. Les transferts PENDING
+ * restés en base après un arrêt sont repris au démarrage.
+ */
+@Component
+@ConditionalOnExpression("${app.transfers.async.enabled:false} and '${app.transfers.engine:jpa}' == 'jpa'")
+public class AsyncTransferPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncTransferPipeline.class);
+
+    private static final String OUTCOME_UNKNOWN = "Enregistrement du transfert trop long, vérifiez votre historique avant de réessayer";
+
+    private record Submission(TransferRequest request, AccountRef from, AccountRef to,
+                              long submittedAt, CompletableFuture<Transfer> accepted) {
+    }
+
+    private record Pending(Long transferId, AccountRef from, AccountRef to, BigDecimal amount, long submittedAt,
+                           int attempts) {
+    }
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private DailyTotalsService dailyTotalsService;
+
+    @Autowired
+    private UserVersionService userVersionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TransferEventBroker transferEventBroker;
+
+    @Autowired
+    private TransferMetrics transferMetrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.transfers.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.transfers.async.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.transfers.async.accept-timeout-ms:5000}")
+    private long acceptTimeoutMs;
+
+    @Value("${app.transfers.async.max-attempts:3}")
+    private int maxAttempts;
+
+    private BlockingQueue<Submission> submissions;
+    private BlockingQueue<Pending> pending;
+    private Thread acceptor;
+    private Thread applier;
+    private volatile boolean accepting;
+    private volatile boolean applying;
+
+    @PostConstruct
+    public void start() {
+        submissions = new ArrayBlockingQueue<>(queueCapacity);
+        List<Pending> recovered = recoverPending();
+        // File bornée : si l'application prend du retard, l'acceptation attend et les nouvelles soumissions sont refusées
+        pending = new LinkedBlockingQueue<>(Math.max(queueCapacity, recovered.size()));
+        pending.addAll(recovered);
+
+        Gauge.builder("transfers.async.queue", submissions, BlockingQueue::size)
+                .description("Transferts asynchrones en file, par étape")
+                .tag("stage", "accept")
+                .register(meterRegistry);
+        Gauge.builder("transfers.async.queue", pending, BlockingQueue::size)
+                .description("Transferts asynchrones en file, par étape")
+                .tag("stage", "apply")
+                .register(meterRegistry);
+
+        accepting = true;
+        applying = true;
+        // Threads de plateforme : chaque étape tourne en continu
+        acceptor = new Thread(this::acceptLoop, "transfer-acceptor");
+        applier = new Thread(this::applyLoop, "transfer-applier");
+        acceptor.start();
+        applier.start();
+        logger.info("Transferts asynchrones activés ({} transferts en attente repris)", recovered.size());
+    }
+
+    /**
+     * L'acceptation s'arrête d'abord et vide sa file pendant que l'application tourne encore :
+     * elle ne reste jamais bloquée sur une file d'application que plus personne ne consomme.
+     * Les transferts encore en file d'application restent PENDING en base et seront repris au
+     * prochain démarrage.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        accepting = false;
+        acceptor.join();
+        // Soumissions arrivées après la sortie de la boucle d'acceptation
+        List<Submission> late = new ArrayList<>();
+        submissions.drainTo(late);
+        for (Submission submission : late) {
+            submission.accepted().completeExceptionally(
+                    new TransferRejectedException(Reason.SATURATED, "Service de transfert saturé, veuillez réessayer"));
+        }
+        applying = false;
+        applier.join();
+    }
+
+    /**
+     * Enregistre le transfert au statut PENDING et renvoie dès que l'insertion est validée.
+     * Les comptes inconnus et la saturation sont refusés immédiatement.
+     */
+    public Transfer submit(TransferRequest transferRequest) {
+        long submittedAt = System.nanoTime();
+        AccountRef from = accountService.getAccountRef(transferRequest.getFromAccountNumber())
+                .orElseThrow(() -> new TransferRejectedException(Reason.UNKNOWN_ACCOUNT, "Compte source introuvable"));
+        AccountRef to = accountService.getAccountRef(transferRequest.getToAccountNumber())
+                .orElseThrow(() -> new TransferRejectedException(Reason.UNKNOWN_ACCOUNT, "Compte destinataire introuvable"));
+
+        CompletableFuture<Transfer> accepted = new CompletableFuture<>();
+        if (!accepting || !submissions.offer(new Submission(transferRequest, from, to, submittedAt, accepted))) {
+            throw new TransferRejectedException(Reason.SATURATED, "Service de transfert saturé, veuillez réessayer");
+        }
+        try {
+            return accepted.get(acceptTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            // Issue inconnue : l'insertion peut encore aboutir, le client doit consulter son historique
+            throw new TransferOutcomeUnknownException(OUTCOME_UNKNOWN);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransferOutcomeUnknownException(OUTCOME_UNKNOWN);
+        }
+    }
+
+    private List<Pending> recoverPending() {
+        List<TransferView> views = transferRepository.findViewsByStatus(TransferStatus.PENDING);
+        List<Pending> recovered = new ArrayList<>(views.size());
+        long now = System.nanoTime();
+        for (TransferView view : views) {
+            AccountRef from = accountService.getAccountRef(view.fromAccount().accountNumber()).orElseThrow();
+            AccountRef to = accountService.getAccountRef(view.toAccount().accountNumber()).orElseThrow();
+            recovered.add(new Pending(view.id(), from, to, view.amount(), now, 1));
+        }
+        return recovered;
+    }
+
+    private void acceptLoop() {
+        List<Submission> group = new ArrayList<>(batchSize);
+        while (accepting || !submissions.isEmpty()) {
+            try {
+                Submission first = submissions.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                submissions.drainTo(group, batchSize - 1);
+                accept(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void accept(List<Submission> group) throws InterruptedException {
+        List<Transfer> transfers = new ArrayList<>(group.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Submission submission : group) {
+                    Transfer transfer = new Transfer(accountService.getAccountReference(submission.from()),
+                            accountService.getAccountReference(submission.to()),
+                            submission.request().getAmount(), submission.request().getDescription());
+                    transfer.setStatus(TransferStatus.PENDING);
+                    transfers.add(transfer);
+                }
+                // Un seul commit et un batch JDBC pour tout le groupe ; la timeline montre aussi les transferts en attente
+                transferRepository.saveAll(transfers);
+                timelineService.record(transfers);
+                userVersionService.record(transfers);
+            });
+        } catch (RuntimeException e) {
+            logger.error("Échec de l'enregistrement de {} transferts asynchrones", group.size(), e);
+            for (Submission submission : group) {
+                transferMetrics.failed(submission.submittedAt(), e);
+                submission.accepted().completeExceptionally(new RuntimeException("Transfert non enregistré, veuillez réessayer"));
+            }
+            return;
+        }
+
+        for (int i = 0; i < group.size(); i++) {
+            Submission submission = group.get(i);
+            Transfer transfer = transfers.get(i);
+            submission.accepted().complete(transfer);
+            pending.put(new Pending(transfer.getId(), submission.from(), submission.to(),
+                    transfer.getAmount(), submission.submittedAt(), 1));
+        }
+    }
+
+    private void applyLoop() {
+        List<Pending> group = new ArrayList<>(batchSize);
+        // À l'arrêt, seul le groupe en cours est terminé : le reste est repris depuis la base
+        while (applying) {
+            try {
+                Pending first = pending.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                pending.drainTo(group, batchSize - 1);
+                applyGroup(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Échec de l'application de {} transferts asynchrones", group.size(), e);
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void applyGroup(List<Pending> group) {
+        List<Transfer> finished = new ArrayList<>(group.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(group, finished));
+        } catch (RuntimeException e) {
+            // Groupe annulé (interblocage, erreur SQL) : chaque transfert est rejoué seul
+            logger.warn("Groupe de {} transferts annulé, application unitaire", group.size(), e);
+            finished.clear();
+            for (Pending transfer : group) {
+                List<Transfer> single = new ArrayList<>(1);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> apply(List.of(transfer), single));
+                    finished.addAll(single);
+                } catch (RuntimeException retryError) {
+                    retryOrFail(transfer, retryError);
+                }
+            }
+        }
+
+        Map<Long, Pending> byId = new HashMap<>();
+        for (Pending transfer : group) {
+            byId.put(transfer.transferId(), transfer);
+        }
+        for (Transfer transfer : finished) {
+            long submittedAt = byId.get(transfer.getId()).submittedAt();
+            if (transfer.getStatus() == TransferStatus.COMPLETED) {
+                transferMetrics.succeeded(submittedAt);
+            } else {
+                transferMetrics.rejected(submittedAt, Reason.INSUFFICIENT_FUNDS);
+            }
+            // Statut final poussé aux abonnés, qu'il s'agisse d'un succès ou d'un échec
+            transferEventBroker.publish(transfer, null, null);
+        }
+    }
+
+    // Remis en file tant qu'il reste des tentatives, sinon FAILED : un transfert ne reste pas PENDING indéfiniment
+    private void retryOrFail(Pending transfer, RuntimeException error) {
+        // offer et non put : ce thread est le seul consommateur de la file
+        if (transfer.attempts() < maxAttempts && pending.offer(new Pending(transfer.transferId(), transfer.from(),
+                transfer.to(), transfer.amount(), transfer.submittedAt(), transfer.attempts() + 1))) {
+            logger.warn("Échec du transfert asynchrone {} (tentative {}), remis en file",
+                    transfer.transferId(), transfer.attempts(), error);
+            return;
+        }
+
+        logger.error("Échec du transfert asynchrone {} après {} tentatives", transfer.transferId(), transfer.attempts(), error);
+        transferMetrics.failed(transfer.submittedAt(), error);
+        try {
+            Transfer failed = transactionTemplate.execute(status -> markFailed(transfer.transferId()));
+            if (failed != null) {
+                transferEventBroker.publish(failed, null, null);
+            }
+        } catch (RuntimeException e) {
+            // Base indisponible : reste PENDING et sera repris au prochain démarrage
+            logger.error("Transfert asynchrone {} laissé en attente", transfer.transferId(), e);
+        }
+    }
+
+    private Transfer markFailed(Long transferId) {
+        List<Transfer> found = transferRepository.findByIdInForUpdate(List.of(transferId));
+        if (found.isEmpty() || found.get(0).getStatus() != TransferStatus.PENDING) {
+            return null;
+        }
+        Transfer transfer = found.get(0);
+        transfer.setStatus(TransferStatus.FAILED);
+        transfer.setFailureReason("Erreur technique, transfert non effectué");
+        userVersionService.record(List.of(transfer));
+        return transfer;
+    }
+
+    // Dans l'ordre d'arrivée : un transfert refusé n'empêche pas les suivants
+    private void apply(List<Pending> group, List<Transfer> finished) {
+        Set<String> accountNumbers = new HashSet<>();
+        List<Long> ids = new ArrayList<>(group.size());
+        for (Pending transfer : group) {
+            accountNumbers.add(transfer.from().accountNumber());
+            accountNumbers.add(transfer.to().accountNumber());
+            ids.add(transfer.transferId());
+        }
+        Map<String, Account> accounts = accountService.lockAccountsByNumbers(accountNumbers);
+        Map<Long, Transfer> transfers = new HashMap<>();
+        for (Transfer transfer : transferRepository.findByIdInForUpdate(ids)) {
+            transfers.put(transfer.getId(), transfer);
+        }
+
+        List<Transfer> completed = new ArrayList<>(group.size());
+        for (Pending pendingTransfer : group) {
+            Transfer transfer = transfers.get(pendingTransfer.transferId());
+            if (transfer == null || transfer.getStatus() != TransferStatus.PENDING) {
+                // Déjà traité (reprise concurrente par une autre instance)
+                continue;
+            }
+            Account from = accounts.get(pendingTransfer.from().accountNumber());
+            Account to = accounts.get(pendingTransfer.to().accountNumber());
+            // Mêmes méthodes que les lots : un compte présent plusieurs fois n'est écrit qu'une fois, au flush
+            if (accountService.tryDebit(from, transfer.getAmount())) {
+                accountService.credit(to, transfer.getAmount());
+                transfer.setStatus(TransferStatus.COMPLETED);
+                completed.add(transfer);
+            } else {
+                transfer.setStatus(TransferStatus.FAILED);
+                transfer.setFailureReason("Solde insuffisant");
+            }
+            finished.add(transfer);
+        }
+        journalService.record(completed);
+        dailyTotalsService.record(completed);
+        // Refusés compris : le statut affiché dans l'historique change
+        userVersionService.record(finished);
+    }
+}
@@ -0,0 +1,69 @@
+package com.moneytransfer.MoneyTransferApplication.service.backfill;
+
+import com.moneytransfer.MoneyTransferApplication.entity.BackfillState;
+import com.moneytransfer.MoneyTransferApplication.repository.BackfillStateRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+
+/**
+ * État des reprises de données lancées au démarrage : une reprise terminée n'est plus
+ * relancée, et deux instances qui démarrent ensemble ne la font qu'une fois.
+ */
+@Service
+public class BackfillService {
+
+    @Autowired
+    private BackfillStateRepository backfillStateRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate separate;
+
+    @PostConstruct
+    public void init() {
+        separate = new TransactionTemplate(transactionManager);
+        separate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isCompleted(String name) {
+        return backfillStateRepository.isCompleted(name);
+    }
+
+    /**
+     * Verrouille la ligne de la reprise jusqu'à la fin de la transaction de l'appelant : une autre
+     * instance attend ici, puis trouve la reprise terminée.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BackfillState lock(String name) {
+        create(name);
+        return backfillStateRepository.findByNameForUpdate(name).orElseThrow();
+    }
+
+    /** Marque la reprise terminée, dans sa propre transaction. */
+    public void markCompleted(String name) {
+        create(name);
+        separate.executeWithoutResult(status -> backfillStateRepository.findByNameForUpdate(name).orElseThrow()
+                .setCompletedAt(LocalDateTime.now()));
+    }
+
+    // Transaction séparée : un doublon (ligne créée au même instant par une autre instance) n'annule pas l'appelant
+    private void create(String name) {
+        if (backfillStateRepository.existsById(name)) {
+            return;
+        }
+        try {
+            separate.executeWithoutResult(status -> backfillStateRepository.saveAndFlush(new BackfillState(name)));
+        } catch (DataIntegrityViolationException e) {
+            // Créée entre-temps par une autre instance
+        }
+    }
+}
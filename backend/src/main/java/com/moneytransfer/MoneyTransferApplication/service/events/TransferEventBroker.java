@@ -0,0 +1,379 @@
+package com.moneytransfer.MoneyTransferApplication.service.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moneytransfer.MoneyTransferApplication.dto.AccountView;
+import com.moneytransfer.MoneyTransferApplication.dto.BalanceUpdate;
+import com.moneytransfer.MoneyTransferApplication.dto.TransferView;
+import com.moneytransfer.MoneyTransferApplication.entity.Transfer;
+import com.moneytransfer.MoneyTransferApplication.service.AccountService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Diffusion des transferts et des nouveaux soldes aux utilisateurs abonnés (SSE).
+ *
+ * Les connexions sont des requêtes asynchrones : une connexion inactive n'occupe
+ * aucun thread. Les transferts validés sont déposés dans une file bornée sans
+ * jamais bloquer l'appelant, puis un unique thread les répartit par lots ; les soldes
+ * d'un même compte sont regroupés en un seul envoi par lot. Si la file déborde,
+ * les abonnés reçoivent un événement "resync" et rechargent leurs données.
+ *
+ * Chaque connexion a sa propre file bornée, vidée par un petit pool d'écriture (threads
+ * de plateforme : SseEmitter.send est synchronized et épinglerait un thread virtuel) :
+ * un client lent ne retarde que lui-même. Quand sa file est pleine, il est déconnecté
+ * et se réabonne (puis recharge ses données) à son rythme.
+ *
+ * Arrêté avant le serveur web : l'arrêt gracieux n'attend pas les flux ouverts.
+ */
+@Component
+public class TransferEventBroker implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferEventBroker.class);
+
+    private static final int DRAIN_LIMIT = 256;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.events.heartbeat-ms:25000}")
+    private long heartbeatMs;
+
+    @Value("${app.events.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.events.max-subscribers:15000}")
+    private int maxSubscribers;
+
+    // Événements en attente par connexion avant de couper un client trop lent
+    @Value("${app.events.subscriber-buffer:256}")
+    private int subscriberBuffer;
+
+    @Value("${app.events.writer-threads:8}")
+    private int writerThreads;
+
+    @Value("${app.events.max-per-user:10}")
+    private int maxPerUser;
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+    private final LongAdder droppedCount = new LongAdder();
+
+    private BlockingQueue<TransferNotification> queue;
+    private ExecutorService writers;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        AtomicInteger counter = new AtomicInteger();
+        writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-writer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        dispatcher = new Thread(this::dispatch, "sse-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        dispatcher.interrupt();
+        try {
+            dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Les clients se reconnecteront à la prochaine instance
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.close(null)));
+        writers.shutdown();
+        try {
+            if (!writers.awaitTermination(5, TimeUnit.SECONDS)) {
+                writers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // null quand la limite d'abonnements est atteinte
+    public SseEmitter subscribe(String email) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(email, emitter);
+        AtomicBoolean added = new AtomicBoolean();
+        subscribers.compute(email, (key, existing) -> {
+            Set<Subscriber> set = existing != null ? existing : ConcurrentHashMap.newKeySet();
+            if (set.size() < maxPerUser) {
+                added.set(set.add(subscriber));
+            }
+            return set.isEmpty() ? null : set;
+        });
+        if (!added.get()) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    // Connexions coupées parce que le client ne lisait pas assez vite
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * À appeler une fois le transfert validé (ou refusé, en mode asynchrone). Les soldes sont facultatifs : ceux qui
+     * manquent sont relus en base au moment de l'envoi, et seulement pour les comptes
+     * dont le titulaire est abonné.
+     */
+    public void publish(Transfer transfer, BigDecimal fromBalance, BigDecimal toBalance) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        if (!queue.offer(new TransferNotification(TransferView.of(transfer), fromBalance, toBalance))) {
+            overflowed.set(true);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.computeIfPresent(subscriber.email, (key, set) -> {
+            if (set.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private void dispatch() {
+        List<TransferNotification> batch = new ArrayList<>(DRAIN_LIMIT);
+        long lastHeartbeat = System.currentTimeMillis();
+
+        while (running) {
+            try {
+                TransferNotification first = queue.poll(heartbeatMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, DRAIN_LIMIT - 1);
+                    deliver(batch);
+                }
+                if (overflowed.getAndSet(false)) {
+                    broadcast("resync");
+                }
+                // Commentaire périodique : garde la connexion ouverte et détecte les clients partis
+                long now = System.currentTimeMillis();
+                if (now - lastHeartbeat >= heartbeatMs) {
+                    broadcast(null);
+                    lastHeartbeat = now;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Échec de la diffusion de {} événements", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(List<TransferNotification> batch) {
+        // Dernier solde connu par compte abonné ; null = à relire en base
+        Map<String, BigDecimal> balances = new LinkedHashMap<>();
+        Map<String, String> owners = new LinkedHashMap<>();
+
+        for (TransferNotification notification : batch) {
+            TransferView transfer = notification.transfer();
+            String fromNumber = transfer.fromAccount().accountNumber();
+            String toNumber = transfer.toAccount().accountNumber();
+            String fromOwner = subscribedOwner(fromNumber);
+            String toOwner = subscribedOwner(toNumber);
+
+            if (fromOwner != null) {
+                send(fromOwner, "transfer", transfer);
+                owners.put(fromNumber, fromOwner);
+                balances.put(fromNumber, notification.fromBalance());
+            }
+            if (toOwner != null) {
+                if (!toOwner.equals(fromOwner)) {
+                    send(toOwner, "transfer", transfer);
+                }
+                owners.put(toNumber, toOwner);
+                balances.put(toNumber, notification.toBalance());
+            }
+        }
+
+        balances.forEach((accountNumber, balance) -> {
+            BigDecimal current = balance != null ? balance
+                    : accountService.getCurrentAccountView(accountNumber).map(AccountView::balance).orElse(null);
+            if (current != null) {
+                send(owners.get(accountNumber), "balance", new BalanceUpdate(accountNumber, current));
+            }
+        });
+    }
+
+    private String subscribedOwner(String accountNumber) {
+        return accountService.getOwnerEmail(accountNumber)
+                .filter(subscribers::containsKey)
+                .orElse(null);
+    }
+
+    private void send(String email, String name, Object data) {
+        Set<Subscriber> set = subscribers.get(email);
+        if (set == null) {
+            return;
+        }
+        // Sérialisé une fois pour toutes les connexions de l'utilisateur
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> event = SseEmitter.event().name(name).data(json).build();
+        set.forEach(subscriber -> subscriber.offer(event));
+    }
+
+    // Sans nom : simple commentaire de maintien de connexion
+    private void broadcast(String name) {
+        Set<ResponseBodyEmitter.DataWithMediaType> event = name != null
+                ? SseEmitter.event().name(name).data("").build()
+                : SseEmitter.event().comment("ping").build();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.offer(event)));
+    }
+
+    /**
+     * Une connexion et sa file d'envoi. Au plus une tâche d'écriture par connexion à la fois
+     * (drapeau writing), qui se charge aussi de terminer l'emitter une fois la connexion fermée.
+     */
+    private final class Subscriber {
+
+        private final String email;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> outbox;
+        private final AtomicBoolean writing = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile Throwable failure;
+
+        Subscriber(String email, SseEmitter emitter) {
+            this.email = email;
+            this.emitter = emitter;
+            this.outbox = new LinkedBlockingQueue<>(subscriberBuffer);
+        }
+
+        // Thread de diffusion : ne bloque jamais
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (closed) {
+                return;
+            }
+            if (!outbox.offer(event)) {
+                droppedCount.increment();
+                logger.debug("Client SSE trop lent déconnecté ({})", email);
+                close(null);
+                return;
+            }
+            if (writing.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+
+        void close(Throwable error) {
+            if (error != null) {
+                failure = error;
+            }
+            unsubscribe(this);
+            // Sans écriture en cours, l'emitter est terminé tout de suite ; sinon par la tâche d'écriture
+            if (writing.compareAndSet(false, true)) {
+                finish();
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while (!closed && (event = outbox.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        // Client parti : la connexion est libérée sans attendre son expiration
+                        failure = e;
+                        unsubscribe(this);
+                    }
+                }
+                if (closed) {
+                    finish();
+                    return;
+                }
+                writing.set(false);
+                // Événement ou fermeture arrivés entre le dernier poll et la remise à false
+                if ((outbox.isEmpty() && !closed) || !writing.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+
+        private void finish() {
+            outbox.clear();
+            try {
+                if (failure != null) {
+                    emitter.completeWithError(failure);
+                } else {
+                    emitter.complete();
+                }
+            } catch (RuntimeException e) {
+                logger.debug("Connexion SSE déjà terminée ({})", email, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.moneytransfer.MoneyTransferApplication.service.events;
+
+import com.moneytransfer.MoneyTransferApplication.dto.TransferView;
+
+import java.math.BigDecimal;
+
+// Transfert validé en attente de diffusion ; un solde null sera relu en base
+record TransferNotification(TransferView transfer, BigDecimal fromBalance, BigDecimal toBalance) {
+}
@@ -0,0 +1,16 @@
+package com.moneytransfer.MoneyTransferApplication.service.idempotency;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+// Clé invalide, réutilisée pour une autre requête ou encore en cours de traitement
+@Getter
+public class IdempotencyException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public IdempotencyException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+}
@@ -0,0 +1,219 @@
+package com.moneytransfer.MoneyTransferApplication.service.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.moneytransfer.MoneyTransferApplication.entity.IdempotencyRecord;
+import com.moneytransfer.MoneyTransferApplication.repository.IdempotencyRecordRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Exécution unique des requêtes portant un en-tête Idempotency-Key.
+ *
+ * Les réponses récentes sont gardées en mémoire (Caffeine, bornée) sous forme de
+ * futures : un doublon concurrent attend la première exécution au lieu d'en lancer
+ * une seconde, et un rejeu renvoie le JSON déjà sérialisé sans toucher la base.
+ * Au-delà, la table idempotency_keys prend le relais (redémarrage, autre instance).
+ * Les réponses 5xx ne sont pas conservées : la requête pourra être rejouée. Seul le 504
+ * (issue inconnue, le transfert a pu être appliqué) est conservé, pour qu'un renvoi ne
+ * déclenche pas un second débit.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.cache-size:100000}")
+    private long cacheSize;
+
+    @Value("${app.idempotency.cache-ttl-minutes:60}")
+    private long cacheTtlMinutes;
+
+    @Value("${app.idempotency.retention-hours:24}")
+    private long retentionHours;
+
+    // Attente maximale d'un doublon concurrent (au-delà du délai de réponse du moteur de transferts)
+    @Value("${app.idempotency.wait-timeout-ms:15000}")
+    private long waitTimeoutMs;
+
+    private Cache<String, CompletableFuture<StoredResponse>> responses;
+
+    @PostConstruct
+    public void init() {
+        responses = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .build();
+    }
+
+    public ResponseEntity<?> execute(String owner, String key, String requestHash,
+                                     Supplier<? extends ResponseEntity<?>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyException(HttpStatus.BAD_REQUEST,
+                    "Clé d'idempotence invalide (1 à " + MAX_KEY_LENGTH + " caractères)");
+        }
+        String scopedKey = owner + " " + key;
+
+        CompletableFuture<StoredResponse> pending = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> existing = responses.asMap().putIfAbsent(scopedKey, pending);
+        if (existing != null) {
+            return replay(await(existing), requestHash);
+        }
+
+        boolean reserved = false;
+        try {
+            StoredResponse stored = reserve(scopedKey, requestHash);
+            if (stored != null) {
+                pending.complete(stored);
+                return replay(stored, requestHash);
+            }
+            reserved = true;
+
+            ResponseEntity<?> response = action.get();
+            stored = new StoredResponse(requestHash, response.getStatusCode().value(), serialize(response.getBody()));
+            if (response.getStatusCode().is5xxServerError()
+                    && response.getStatusCode() != HttpStatus.GATEWAY_TIMEOUT) {
+                // Échec technique sans exécution : la clé est libérée pour une nouvelle tentative
+                responses.asMap().remove(scopedKey, pending);
+                idempotencyRecordRepository.deleteById(scopedKey);
+            } else {
+                idempotencyRecordRepository.complete(scopedKey, stored.statusCode(), stored.body());
+            }
+            pending.complete(stored);
+            return response;
+        } catch (RuntimeException e) {
+            responses.asMap().remove(scopedKey, pending);
+            if (reserved) {
+                release(scopedKey);
+            }
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Empreinte de la requête : une clé réutilisée pour un autre contenu est refusée
+    public static String fingerprint(Object... parts) {
+        StringBuilder canonical = new StringBuilder();
+        for (Object part : parts) {
+            canonical.append(part).append('\u001f');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int deleted = idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (deleted > 0) {
+            logger.info("{} clés d'idempotence expirées supprimées", deleted);
+        }
+    }
+
+    /**
+     * Réserve la clé en base. Renvoie null si elle est nouvelle, la réponse
+     * enregistrée si la requête a déjà été traitée.
+     */
+    private StoredResponse reserve(String scopedKey, String requestHash) {
+        try {
+            idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord(scopedKey, requestHash));
+            return null;
+        } catch (DataIntegrityViolationException e) {
+            IdempotencyRecord record = idempotencyRecordRepository.findById(scopedKey)
+                    .orElseThrow(() -> new IdempotencyException(HttpStatus.CONFLICT,
+                            "Requête déjà en cours de traitement"));
+            if (record.getStatusCode() == null) {
+                if (!record.getRequestHash().equals(requestHash)) {
+                    throw reusedKey();
+                }
+                throw new IdempotencyException(HttpStatus.CONFLICT, "Requête déjà en cours de traitement");
+            }
+            return new StoredResponse(record.getRequestHash(), record.getStatusCode(), record.getResponseBody());
+        }
+    }
+
+    // Sans réponse enregistrée, la réservation bloquerait la clé (409) jusqu'à la purge
+    private void release(String scopedKey) {
+        try {
+            idempotencyRecordRepository.deleteById(scopedKey);
+        } catch (RuntimeException e) {
+            logger.error("Réservation de la clé d'idempotence {} non libérée", scopedKey, e);
+        }
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw reusedKey();
+        }
+        return ResponseEntity.status(stored.statusCode())
+                .header(REPLAYED_HEADER, "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(stored.body());
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> future) {
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyException(HttpStatus.CONFLICT, "Requête déjà en cours de traitement");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyException(HttpStatus.CONFLICT, "Requête déjà en cours de traitement");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private IdempotencyException reusedKey() {
+        return new IdempotencyException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Clé d'idempotence déjà utilisée pour une autre requête");
+    }
+
+    private String serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.moneytransfer.MoneyTransferApplication.service.idempotency;
+
+// Réponse déjà sérialisée : un rejeu la renvoie telle quelle
+record StoredResponse(String requestHash, int statusCode, String body) {
+}
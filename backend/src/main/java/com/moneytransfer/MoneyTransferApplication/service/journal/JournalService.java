@@ -0,0 +1,144 @@
+package com.moneytransfer.MoneyTransferApplication.service.journal;
+
+import com.moneytransfer.MoneyTransferApplication.dto.AccountMovement;
+import com.moneytransfer.MoneyTransferApplication.entity.BalanceCheckpoint;
+import com.moneytransfer.MoneyTransferApplication.entity.JournalEntry;
+import com.moneytransfer.MoneyTransferApplication.entity.JournalEntry.EntryType;
+import com.moneytransfer.MoneyTransferApplication.entity.Transfer;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.repository.BalanceCheckpointRepository;
+import com.moneytransfer.MoneyTransferApplication.repository.JournalEntryRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Journal en partie double des mouvements de comptes.
+ *
+ * Chaque transfert ajoute une écriture de débit et une de crédit, insérées dans la
+ * transaction du transfert en un seul batch JDBC (identifiants pré-alloués par la séquence).
+ * Périodiquement, un point de contrôle arrête le solde des comptes qui ont bougé : le solde
+ * d'un compte à une date est le point de contrôle qui la précède plus les écritures suivantes.
+ */
+@Service
+public class JournalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalService.class);
+
+    // Borne basse quand aucun point de contrôle n'existe (DATETIME MySQL ne descend pas plus bas que l'an 1000)
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final int CHUNK_SIZE = 1000;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private BalanceCheckpointRepository balanceCheckpointRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Une écriture datée avant cet instant mais pas encore validée serait oubliée par le point de contrôle
+    @Value("${app.journal.checkpoint-lag-ms:60000}")
+    private long checkpointLagMs;
+
+    // Comptes créés avant le journal : leur solde courant devient une écriture d'ouverture
+    @PostConstruct
+    public void openExistingAccounts() {
+        List<AccountMovement> unopened = accountRepository.findBalancesWithoutJournal();
+        if (unopened.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            List<JournalEntry> entries = new ArrayList<>(unopened.size());
+            for (AccountMovement account : unopened) {
+                entries.add(new JournalEntry(account.accountId(), null, EntryType.OPENING, account.total()));
+            }
+            journalEntryRepository.saveAll(entries);
+        });
+        logger.info("Journal ouvert pour {} comptes existants", unopened.size());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void open(Long accountId, BigDecimal balance) {
+        journalEntryRepository.save(new JournalEntry(accountId, null, EntryType.OPENING, balance));
+    }
+
+    // Dans la transaction des transferts : le journal et les soldes sont validés ensemble
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Collection<Transfer> transfers) {
+        List<JournalEntry> entries = new ArrayList<>(transfers.size() * 2);
+        for (Transfer transfer : transfers) {
+            entries.add(new JournalEntry(transfer.getFromAccount().getId(), transfer.getId(),
+                    EntryType.DEBIT, transfer.getAmount().negate()));
+            entries.add(new JournalEntry(transfer.getToAccount().getId(), transfer.getId(),
+                    EntryType.CREDIT, transfer.getAmount()));
+        }
+        journalEntryRepository.saveAll(entries);
+    }
+
+    /** Solde du compte à la date donnée : point de contrôle le plus proche, plus les écritures qui le suivent. */
+    @Transactional(readOnly = true)
+    public BigDecimal balanceAt(Long accountId, LocalDateTime at) {
+        Optional<BalanceCheckpoint> checkpoint =
+                balanceCheckpointRepository.findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(accountId, at);
+        LocalDateTime from = checkpoint.map(BalanceCheckpoint::getAsOf).orElse(ORIGIN);
+        BigDecimal base = checkpoint.map(BalanceCheckpoint::getBalance).orElse(BigDecimal.ZERO);
+        return base.add(journalEntryRepository.sumByAccountBetween(accountId, from, at));
+    }
+
+    /**
+     * Arrête les soldes à (maintenant - délai) pour les comptes qui ont bougé depuis le dernier
+     * passage. Tout le passage est dans une transaction : un passage interrompu est simplement rejoué.
+     */
+    @Scheduled(fixedDelayString = "${app.journal.checkpoint-interval-ms:3600000}",
+            initialDelayString = "${app.journal.checkpoint-interval-ms:3600000}")
+    public void checkpoint() {
+        LocalDateTime asOf = LocalDateTime.now().minusNanos(checkpointLagMs * 1_000_000);
+        Integer created = transactionTemplate.execute(status -> {
+            LocalDateTime previous = balanceCheckpointRepository.findLatestAsOf().orElse(ORIGIN);
+            if (!asOf.isAfter(previous)) {
+                return 0;
+            }
+
+            List<AccountMovement> movements = journalEntryRepository.sumByAccountsBetween(previous, asOf);
+            for (int start = 0; start < movements.size(); start += CHUNK_SIZE) {
+                List<AccountMovement> chunk = movements.subList(start, Math.min(start + CHUNK_SIZE, movements.size()));
+                Map<Long, BigDecimal> balances = new HashMap<>();
+                for (AccountMovement movement : chunk) {
+                    balances.put(movement.accountId(), movement.total());
+                }
+                for (BalanceCheckpoint latest : balanceCheckpointRepository.findLatestByAccountIds(balances.keySet())) {
+                    balances.merge(latest.getAccountId(), latest.getBalance(), BigDecimal::add);
+                }
+
+                List<BalanceCheckpoint> checkpoints = new ArrayList<>(balances.size());
+                balances.forEach((accountId, balance) -> checkpoints.add(new BalanceCheckpoint(accountId, balance, asOf)));
+                balanceCheckpointRepository.saveAll(checkpoints);
+            }
+            return movements.size();
+        });
+        if (created != null && created > 0) {
+            logger.info("Points de contrôle au {} : {} comptes", asOf, created);
+        }
+    }
+}
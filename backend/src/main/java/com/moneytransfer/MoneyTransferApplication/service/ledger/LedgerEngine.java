@@ -0,0 +1,387 @@
+package com.moneytransfer.MoneyTransferApplication.service.ledger;
+
+import com.moneytransfer.MoneyTransferApplication.dto.TransferRequest;
+import com.moneytransfer.MoneyTransferApplication.entity.Account;
+import com.moneytransfer.MoneyTransferApplication.entity.Transfer;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.repository.TransferRepository;
+import com.moneytransfer.MoneyTransferApplication.service.AccountService;
+import com.moneytransfer.MoneyTransferApplication.service.TransferOutcomeUnknownException;
+import com.moneytransfer.MoneyTransferApplication.service.TransferRejectedException;
+import com.moneytransfer.MoneyTransferApplication.service.TransferRejectedException.Reason;
+import com.moneytransfer.MoneyTransferApplication.service.journal.JournalService;
+import com.moneytransfer.MoneyTransferApplication.service.timeline.TimelineService;
+import com.moneytransfer.MoneyTransferApplication.service.totals.DailyTotalsService;
+import com.moneytransfer.MoneyTransferApplication.service.versions.UserVersionService;
+import jakarta.annotation.PostConstruct;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Moteur de transferts en mémoire (app.transfers.engine=ledger).
+ *
+ * Les soldes sont répartis en partitions par numéro de compte ; chaque partition
+ * est tenue par un unique thread qui applique débits et crédits dans l'ordre.
+ * Un transfert est débité sur la partition source puis crédité sur la partition
+ * destinataire, et n'est journalisé qu'une fois les deux côtés appliqués.
+ * Le journal est écrit en base par lots : les mouvements de chaque compte sont
+ * cumulés en un seul UPDATE, les transferts et leurs écritures insérés ensemble.
+ *
+ * Un lot qui échoue max-flush-attempts fois de suite est réécrit transfert par transfert :
+ * un transfert refusé par la base pour une raison durable (contrainte, donnée invalide) est
+ * écarté et annulé en mémoire, pour ne pas bloquer les suivants.
+ */
+@Component
+@ConditionalOnProperty(name = "app.transfers.engine", havingValue = "ledger")
+public class LedgerEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerEngine.class);
+
+    private static final String OUTCOME_UNKNOWN = "Délai dépassé : vérifiez votre historique avant de renouveler le transfert";
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private DailyTotalsService dailyTotalsService;
+
+    @Autowired
+    private UserVersionService userVersionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.ledger.partitions:4}")
+    private int partitionCount;
+
+    @Value("${app.ledger.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.ledger.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    @Value("${app.ledger.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.ledger.max-flush-attempts:3}")
+    private int maxFlushAttempts;
+
+    // Au-delà, le client reçoit une erreur "résultat inconnu" au lieu d'attendre indéfiniment
+    @Value("${app.ledger.reply-timeout-ms:10000}")
+    private long replyTimeoutMs;
+
+    // Les comptes ne sont jamais supprimés : la correspondance numéro -> id peut rester en mémoire
+    private final Map<String, Long> accountIds = new ConcurrentHashMap<>();
+
+    private final Queue<LedgerEntry> journal = new ConcurrentLinkedQueue<>();
+
+    // Lot en cours d'écriture, conservé tant qu'il n'a pas été validé en base
+    private List<LedgerEntry> unflushed = new ArrayList<>();
+    private int failedAttempts;
+    private Counter discarded;
+
+    private LedgerPartition[] partitions;
+    private Thread[] writers;
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void start() {
+        discarded = Counter.builder("ledger.entries.discarded")
+                .description("Transferts du ledger refusés par la base et annulés en mémoire")
+                .register(meterRegistry);
+        partitions = new LedgerPartition[partitionCount];
+        writers = new Thread[partitionCount];
+        // Threads de plateforme même en mode threads virtuels : chaque partition tourne en continu
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new LedgerPartition(queueCapacity);
+            writers[i] = new Thread(partitions[i], "ledger-partition-" + i);
+            writers[i].start();
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "ledger-flusher"));
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Ledger en mémoire démarré avec {} partitions", partitionCount);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (LedgerPartition partition : partitions) {
+            partition.stop();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(30, TimeUnit.SECONDS);
+
+        // Dernière écriture de ce qui reste dans le journal
+        flush();
+        if (!unflushed.isEmpty() || !journal.isEmpty()) {
+            logger.error("{} transferts n'ont pas pu être écrits en base", unflushed.size() + journal.size());
+        }
+    }
+
+    public Transfer transfer(TransferRequest transferRequest) {
+        String fromNumber = transferRequest.getFromAccountNumber();
+        String toNumber = transferRequest.getToAccountNumber();
+        BigDecimal amount = transferRequest.getAmount();
+
+        Long fromId = resolveAccountId(fromNumber);
+        if (fromId == null) {
+            throw new TransferRejectedException(Reason.UNKNOWN_ACCOUNT, "Compte source introuvable");
+        }
+        Long toId = resolveAccountId(toNumber);
+        if (toId == null) {
+            throw new TransferRejectedException(Reason.UNKNOWN_ACCOUNT, "Compte destinataire introuvable");
+        }
+
+        LedgerPartition source = partitionFor(fromNumber);
+        LedgerPartition target = partitionFor(toNumber);
+        // Soldes inconnus lus ici, sur le thread de la requête : une partition n'attend jamais
+        // de connexion JDBC (avec open-in-view, les requêtes en attente peuvent toutes les détenir)
+        BigDecimal fromLoaded = source.isLoaded(fromNumber) ? null : loadBalance(fromNumber);
+        BigDecimal toLoaded = target.isLoaded(toNumber) ? null : loadBalance(toNumber);
+        CompletableFuture<Transfer> result = new CompletableFuture<>();
+
+        source.submit(() -> {
+            // Appelant reparti sur un délai dépassé avant le débit : le transfert n'est pas appliqué
+            if (result.isDone()) {
+                return;
+            }
+            BigDecimal newFromBalance;
+            try {
+                BigDecimal fromBalance = source.balance(fromNumber, fromLoaded);
+                if (fromBalance.compareTo(amount) < 0) {
+                    result.completeExceptionally(new TransferRejectedException(Reason.INSUFFICIENT_FUNDS, "Solde insuffisant"));
+                    return;
+                }
+                newFromBalance = fromBalance.subtract(amount);
+                source.setBalance(fromNumber, newFromBalance);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+
+            target.enqueue(() -> {
+                BigDecimal newToBalance;
+                try {
+                    newToBalance = target.balance(toNumber, toLoaded).add(amount);
+                    target.setBalance(toNumber, newToBalance);
+                } catch (RuntimeException e) {
+                    // Crédit impossible : on rend le montant au compte source
+                    source.enqueue(() -> source.setBalance(fromNumber, source.balance(fromNumber, null).add(amount)));
+                    result.completeExceptionally(e);
+                    return;
+                }
+
+                LedgerEntry entry = new LedgerEntry(fromId, fromNumber, toId, toNumber, amount,
+                        transferRequest.getDescription(), LocalDateTime.now());
+                journal.add(entry);
+                result.complete(toTransfer(entry, fromNumber, toNumber, newFromBalance, newToBalance));
+            });
+        });
+
+        try {
+            return result.get(replyTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Le débit a pu être appliqué entre-temps : seul l'historique fait foi
+            if (result.completeExceptionally(new TransferOutcomeUnknownException(OUTCOME_UNKNOWN))) {
+                throw new TransferOutcomeUnknownException(OUTCOME_UNKNOWN);
+            }
+            return join(result);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransferOutcomeUnknownException(OUTCOME_UNKNOWN);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static Transfer join(CompletableFuture<Transfer> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransferOutcomeUnknownException(OUTCOME_UNKNOWN);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        return e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+    }
+
+    private Long resolveAccountId(String accountNumber) {
+        Long id = accountIds.get(accountNumber);
+        if (id == null) {
+            id = accountService.getAccountByNumber(accountNumber).map(Account::getId).orElse(null);
+            if (id != null) {
+                accountIds.put(accountNumber, id);
+            }
+        }
+        return id;
+    }
+
+    private LedgerPartition partitionFor(String accountNumber) {
+        return partitions[Math.floorMod(accountNumber.hashCode(), partitions.length)];
+    }
+
+    // Appelé par le thread de la requête tant que la partition ne connaît pas le compte
+    private BigDecimal loadBalance(String accountNumber) {
+        return accountService.getAccountWithBalance(accountNumber)
+                .map(Account::getTotalBalance)
+                .orElseThrow(() -> new RuntimeException("Compte introuvable : " + accountNumber));
+    }
+
+    private Transfer toTransfer(LedgerEntry entry, String fromNumber, String toNumber,
+                                BigDecimal newFromBalance, BigDecimal newToBalance) {
+        Account from = new Account(fromNumber, newFromBalance, null);
+        from.setId(entry.fromAccountId());
+        Account to = new Account(toNumber, newToBalance, null);
+        to.setId(entry.toAccountId());
+
+        Transfer transfer = new Transfer(from, to, entry.amount(), entry.description());
+        transfer.setCreatedAt(entry.createdAt());
+        return transfer;
+    }
+
+    private void flush() {
+        try {
+            while (true) {
+                if (unflushed.isEmpty()) {
+                    LedgerEntry entry;
+                    while (unflushed.size() < batchSize && (entry = journal.poll()) != null) {
+                        unflushed.add(entry);
+                    }
+                }
+                if (unflushed.isEmpty()) {
+                    return;
+                }
+
+                List<LedgerEntry> batch = unflushed;
+                transactionTemplate.executeWithoutResult(status -> persist(batch));
+                unflushed = new ArrayList<>();
+                failedAttempts = 0;
+            }
+        } catch (RuntimeException e) {
+            logger.error("Échec de l'écriture de {} transferts du ledger", unflushed.size(), e);
+            // Le lot est conservé et sera retenté au prochain passage, ou isolé s'il échoue trop souvent
+            if (++failedAttempts >= maxFlushAttempts) {
+                failedAttempts = 0;
+                isolate();
+            }
+        }
+    }
+
+    /**
+     * Réécrit le lot en échec un transfert par transaction. S'arrête à la première erreur passagère
+     * (base indisponible, interblocage) : le reste du lot sera retenté tel quel.
+     */
+    private void isolate() {
+        Iterator<LedgerEntry> entries = unflushed.iterator();
+        while (entries.hasNext()) {
+            LedgerEntry entry = entries.next();
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(List.of(entry)));
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    return;
+                }
+                discard(entry, e);
+            }
+            entries.remove();
+        }
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof TransactionException;
+    }
+
+    // Le transfert n'existera jamais en base : les soldes en mémoire reviennent à l'état écrit
+    private void discard(LedgerEntry entry, RuntimeException e) {
+        logger.error("Transfert du ledger écarté : {} -> {}, {} ({})", entry.fromAccountNumber(),
+                entry.toAccountNumber(), entry.amount(), entry.createdAt(), e);
+        discarded.increment();
+        LedgerPartition source = partitionFor(entry.fromAccountNumber());
+        LedgerPartition target = partitionFor(entry.toAccountNumber());
+        source.enqueue(() -> source.setBalance(entry.fromAccountNumber(),
+                source.balance(entry.fromAccountNumber(), null).add(entry.amount())));
+        target.enqueue(() -> target.setBalance(entry.toAccountNumber(),
+                target.balance(entry.toAccountNumber(), null).subtract(entry.amount())));
+    }
+
+    private void persist(List<LedgerEntry> batch) {
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        List<Transfer> transfers = new ArrayList<>(batch.size());
+
+        for (LedgerEntry entry : batch) {
+            deltas.merge(entry.fromAccountId(), entry.amount().negate(), BigDecimal::add);
+            deltas.merge(entry.toAccountId(), entry.amount(), BigDecimal::add);
+
+            Transfer transfer = new Transfer(
+                    accountRepository.getReferenceById(entry.fromAccountId()),
+                    accountRepository.getReferenceById(entry.toAccountId()),
+                    entry.amount(), entry.description());
+            transfer.setCreatedAt(entry.createdAt());
+            transfers.add(transfer);
+        }
+
+        deltas.forEach((accountId, delta) -> {
+            if (delta.signum() != 0) {
+                accountRepository.applyDelta(accountId, delta);
+            }
+        });
+        transferRepository.saveAll(transfers);
+        journalService.record(transfers);
+        timelineService.record(transfers);
+        dailyTotalsService.record(transfers);
+        userVersionService.record(transfers);
+    }
+}
@@ -0,0 +1,9 @@
+package com.moneytransfer.MoneyTransferApplication.service.ledger;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Transfert appliqué en mémoire, en attente d'écriture en base ; les numéros désignent les partitions
+record LedgerEntry(Long fromAccountId, String fromAccountNumber, Long toAccountId, String toAccountNumber,
+                   BigDecimal amount, String description, LocalDateTime createdAt) {
+}
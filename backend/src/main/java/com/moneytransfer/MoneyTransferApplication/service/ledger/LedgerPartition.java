@@ -0,0 +1,90 @@
+package com.moneytransfer.MoneyTransferApplication.service.ledger;
+
+import com.moneytransfer.MoneyTransferApplication.service.TransferRejectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Partition du ledger : un seul thread écrit les soldes de ses comptes,
+ * dans l'ordre d'arrivée des commandes, sans verrou sur les soldes.
+ */
+class LedgerPartition implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerPartition.class);
+
+    private final BlockingQueue<Runnable> inbox = new LinkedBlockingQueue<>();
+
+    // Écrit uniquement par le thread propriétaire ; les autres threads ne font que tester la présence d'un compte
+    private final Map<String, BigDecimal> balances = new ConcurrentHashMap<>();
+
+    private final int capacity;
+    private volatile boolean running = true;
+
+    LedgerPartition(int capacity) {
+        this.capacity = capacity;
+    }
+
+    // Nouvelle commande client : refusée si la partition est saturée
+    void submit(Runnable command) {
+        if (!running || inbox.size() >= capacity) {
+            throw new TransferRejectedException(TransferRejectedException.Reason.SATURATED, "Service de transfert saturé, veuillez réessayer");
+        }
+        inbox.add(command);
+    }
+
+    // Suite d'une commande déjà acceptée (crédit) : jamais refusée
+    void enqueue(Runnable command) {
+        inbox.add(command);
+    }
+
+    boolean isLoaded(String accountNumber) {
+        return balances.containsKey(accountNumber);
+    }
+
+    /**
+     * Solde en mémoire du compte. Au premier accès, {@code loaded} est le solde lu en base
+     * par le thread appelant : la partition elle-même n'accède jamais à la base.
+     */
+    BigDecimal balance(String accountNumber, BigDecimal loaded) {
+        BigDecimal balance = balances.get(accountNumber);
+        if (balance == null) {
+            if (loaded == null) {
+                throw new IllegalStateException("Solde non chargé : " + accountNumber);
+            }
+            balances.put(accountNumber, loaded);
+            return loaded;
+        }
+        return balance;
+    }
+
+    void setBalance(String accountNumber, BigDecimal balance) {
+        balances.put(accountNumber, balance);
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        while (running || !inbox.isEmpty()) {
+            try {
+                Runnable command = inbox.poll(100, TimeUnit.MILLISECONDS);
+                if (command != null) {
+                    command.run();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Commande du ledger en échec", e);
+            }
+        }
+    }
+}
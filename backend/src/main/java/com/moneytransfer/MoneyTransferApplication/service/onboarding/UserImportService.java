@@ -0,0 +1,392 @@
+package com.moneytransfer.MoneyTransferApplication.service.onboarding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moneytransfer.MoneyTransferApplication.config.CacheConfig;
+import com.moneytransfer.MoneyTransferApplication.dto.RegisterRequest;
+import com.moneytransfer.MoneyTransferApplication.dto.UserIdentity;
+import com.moneytransfer.MoneyTransferApplication.dto.UserImportReport;
+import com.moneytransfer.MoneyTransferApplication.dto.UserImportReport.RowError;
+import com.moneytransfer.MoneyTransferApplication.entity.Account;
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.repository.UserRepository;
+import com.moneytransfer.MoneyTransferApplication.service.AccountNumberGenerator;
+import com.moneytransfer.MoneyTransferApplication.service.AuthService;
+import com.moneytransfer.MoneyTransferApplication.service.journal.JournalService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Inscription en masse d'utilisateurs (CSV avec ligne d'en-tête, ou NDJSON), chacun avec son compte par défaut.
+ *
+ * Le fichier est d'abord recopié sur disque en comptant ses lignes : au-delà de max-rows, il est
+ * refusé avant toute insertion. Il est ensuite relu en flux et traité par tranches : contrôle des
+ * doublons de la tranche en une requête, hachage BCrypt en parallèle sur tous les cœurs, puis
+ * insertion des utilisateurs, des comptes et des écritures d'ouverture en batch JDBC, une
+ * transaction par tranche. Une ligne invalide ou en doublon est signalée sans bloquer les autres.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format from(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new RuntimeException("Format d'import non supporté : " + value);
+        }
+    }
+
+    // Ligne lue et validée, en attente d'insertion
+    private static final class Row {
+        final int line;
+        final RegisterRequest request;
+        User user;
+
+        Row(int line, RegisterRequest request) {
+            this.line = line;
+            this.request = request;
+        }
+    }
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private AccountNumberGenerator accountNumberGenerator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${app.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.import.max-rows:200000}")
+    private int maxRows;
+
+    @Value("${app.import.hash-threads:0}")
+    private int hashThreads;
+
+    // Même coût que les inscriptions unitaires ; hors du pool borné de la connexion, qu'un import saturerait
+    @Value("${app.security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    // Un import à la fois : deux imports se partageraient les mêmes cœurs
+    private final ReentrantLock running = new ReentrantLock();
+
+    public UserImportReport importUsers(InputStream input, Format format) throws IOException {
+        if (!running.tryLock()) {
+            throw new RuntimeException("Un import est déjà en cours");
+        }
+        long start = System.nanoTime();
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        List<RowError> errors = new ArrayList<>();
+        int total = 0;
+        int imported = 0;
+        Path file = null;
+
+        try {
+            file = spool(input, format);
+            // Threads de plateforme : BCrypt est du calcul pur
+            try (ExecutorService hashing = Executors.newFixedThreadPool(threads,
+                    runnable -> new Thread(runnable, "import-bcrypt-" + counter.incrementAndGet()));
+                 BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                PasswordEncoder encoder = new BCryptPasswordEncoder(bcryptStrength);
+                List<String> header = format == Format.CSV ? readHeader(reader) : null;
+                int lineNumber = header == null ? 0 : 1;
+
+                List<Row> chunk = new ArrayList<>(chunkSize);
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    total++;
+                    Row row = parse(line, lineNumber, format, header, errors);
+                    if (row != null) {
+                        chunk.add(row);
+                    }
+                    if (chunk.size() == chunkSize) {
+                        imported += importChunk(chunk, encoder, hashing, errors);
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    imported += importChunk(chunk, encoder, hashing, errors);
+                }
+            }
+        } finally {
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+            running.unlock();
+        }
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Import de {} lignes : {} utilisateurs créés, {} erreurs en {} ms", total, imported, errors.size(), durationMs);
+        errors.sort((a, b) -> Integer.compare(a.line(), b.line()));
+        return new UserImportReport(total, imported, durationMs, errors);
+    }
+
+    // Copie du fichier sur disque ; s'arrête et le supprime dès que max-rows est dépassé (en-tête CSV non compté)
+    private Path spool(InputStream input, Format format) throws IOException {
+        Path file = Files.createTempFile("user-import-", "." + format.name().toLowerCase());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+             BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            boolean header = format == Format.CSV;
+            int rows = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (header) {
+                    header = false;
+                } else if (!line.isBlank() && ++rows > maxRows) {
+                    throw new RuntimeException("L'import est limité à " + maxRows + " lignes");
+                }
+                writer.write(line);
+                writer.newLine();
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    private Row parse(String line, int lineNumber, Format format, List<String> header, List<RowError> errors) {
+        RegisterRequest request;
+        try {
+            request = format == Format.CSV
+                    ? objectMapper.convertValue(toRecord(header, line), RegisterRequest.class)
+                    : objectMapper.readValue(line, RegisterRequest.class);
+        } catch (Exception e) {
+            errors.add(new RowError(lineNumber, null, "Ligne illisible"));
+            return null;
+        }
+
+        Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<RegisterRequest> violation = violations.iterator().next();
+            errors.add(new RowError(lineNumber, request.getEmail(), violation.getPropertyPath() + " : " + violation.getMessage()));
+            return null;
+        }
+        return new Row(lineNumber, request);
+    }
+
+    private int importChunk(List<Row> chunk, PasswordEncoder encoder, ExecutorService hashing, List<RowError> errors) {
+        List<Row> accepted = withoutDuplicates(chunk, errors);
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+
+        // Tous les hachages de la tranche en parallèle ; c'est de loin l'étape la plus longue
+        List<CompletableFuture<Void>> hashes = new ArrayList<>(accepted.size());
+        for (Row row : accepted) {
+            hashes.add(CompletableFuture.runAsync(() ->
+                    row.user = authService.newUser(row.request, encoder.encode(row.request.getPassword())), hashing));
+        }
+        CompletableFuture.allOf(hashes.toArray(CompletableFuture[]::new)).join();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(accepted));
+        } catch (DataIntegrityViolationException e) {
+            // Un doublon apparu entre le contrôle et l'insertion (inscription concurrente) : ligne par ligne
+            logger.warn("Tranche de {} utilisateurs annulée, insertion ligne par ligne", accepted.size(), e);
+            int inserted = 0;
+            for (Row row : accepted) {
+                row.user.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(row)));
+                    inserted++;
+                } catch (DataIntegrityViolationException rowError) {
+                    errors.add(new RowError(row.line, row.request.getEmail(), "Utilisateur déjà inscrit"));
+                }
+            }
+            evictUsers(accepted);
+            return inserted;
+        }
+        evictUsers(accepted);
+        return accepted.size();
+    }
+
+    // Doublons dans la tranche elle-même, puis avec les utilisateurs existants (une seule requête)
+    private List<Row> withoutDuplicates(List<Row> chunk, List<RowError> errors) {
+        Set<String> emails = new HashSet<>();
+        Set<String> phoneNumbers = new HashSet<>();
+        Set<String> idNumbers = new HashSet<>();
+        List<Row> unique = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            RegisterRequest request = row.request;
+            if (!emails.add(request.getEmail()) | !phoneNumbers.add(request.getPhoneNumber()) | !idNumbers.add(request.getIdNumber())) {
+                errors.add(new RowError(row.line, request.getEmail(), "Doublon dans le fichier"));
+                continue;
+            }
+            unique.add(row);
+        }
+
+        Set<String> takenEmails = new HashSet<>();
+        Set<String> takenPhoneNumbers = new HashSet<>();
+        Set<String> takenIdNumbers = new HashSet<>();
+        for (UserIdentity identity : userRepository.findIdentities(emails, phoneNumbers, idNumbers)) {
+            takenEmails.add(identity.email());
+            takenPhoneNumbers.add(identity.phoneNumber());
+            takenIdNumbers.add(identity.idNumber());
+        }
+
+        List<Row> accepted = new ArrayList<>(unique.size());
+        for (Row row : unique) {
+            RegisterRequest request = row.request;
+            if (takenEmails.contains(request.getEmail())) {
+                errors.add(new RowError(row.line, request.getEmail(), "Email déjà utilisé"));
+            } else if (takenPhoneNumbers.contains(request.getPhoneNumber())) {
+                errors.add(new RowError(row.line, request.getEmail(), "Numéro de téléphone déjà utilisé"));
+            } else if (takenIdNumbers.contains(request.getIdNumber())) {
+                errors.add(new RowError(row.line, request.getEmail(), "Pièce d'identité déjà utilisée"));
+            } else {
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+
+    // Identifiants pré-alloués par les séquences : utilisateurs, comptes et écritures partent en batch au commit
+    private void insert(List<Row> rows) {
+        List<User> users = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            users.add(row.user);
+        }
+        userRepository.saveAll(users);
+
+        List<Account> accounts = new ArrayList<>(rows.size());
+        for (User user : users) {
+            accounts.add(new Account(accountNumberGenerator.generate(), AuthService.WELCOME_BALANCE, user));
+        }
+        accountRepository.saveAll(accounts);
+        for (Account account : accounts) {
+            journalService.open(account.getId(), account.getBalance());
+        }
+    }
+
+    // Un email cherché avant l'import (connexion échouée) peut être en cache comme absent
+    private void evictUsers(List<Row> rows) {
+        Cache cache = cacheManager.getCache(CacheConfig.USERS_BY_EMAIL);
+        if (cache != null) {
+            for (Row row : rows) {
+                cache.evict(row.request.getEmail());
+            }
+        }
+    }
+
+    private static List<String> readHeader(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null || header.isBlank()) {
+            throw new RuntimeException("Fichier CSV vide : ligne d'en-tête attendue");
+        }
+        // Un éventuel BOM UTF-8 en tête de fichier ferait échouer la première colonne
+        if (header.charAt(0) == '\uFEFF') {
+            header = header.substring(1);
+        }
+        List<String> columns = splitCsv(header);
+        columns.replaceAll(column -> column.trim());
+        return columns;
+    }
+
+    private static Map<String, String> toRecord(List<String> header, String line) {
+        List<String> values = splitCsv(line);
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException(values.size() + " colonnes au lieu de " + header.size());
+        }
+        Map<String, String> record = new LinkedHashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            record.put(header.get(i), values.get(i));
+        }
+        return record;
+    }
+
+    // Champs séparés par des virgules, éventuellement entre guillemets ("" pour un guillemet), sur une seule ligne
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Guillemet non fermé");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
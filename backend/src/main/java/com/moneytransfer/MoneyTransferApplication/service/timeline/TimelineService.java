@@ -0,0 +1,131 @@
+package com.moneytransfer.MoneyTransferApplication.service.timeline;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.moneytransfer.MoneyTransferApplication.dto.AccountOwner;
+import com.moneytransfer.MoneyTransferApplication.entity.TimelineEntry;
+import com.moneytransfer.MoneyTransferApplication.entity.Transfer;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.repository.TimelineEntryRepository;
+import com.moneytransfer.MoneyTransferApplication.repository.TransferRepository;
+import com.moneytransfer.MoneyTransferApplication.service.backfill.BackfillService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Historique des transferts par utilisateur, écrit en même temps que les transferts.
+ *
+ * Chaque insertion de transferts ajoute, dans la même transaction, une ligne par
+ * utilisateur participant. Les titulaires des comptes sont gardés en mémoire
+ * (ils ne changent jamais) : l'écriture ne coûte qu'un INSERT en batch.
+ */
+@Service
+public class TimelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimelineService.class);
+
+    private static final int BACKFILL_CHUNK_SIZE = 10_000;
+
+    static final String BACKFILL = "timeline";
+
+    @Autowired
+    private TimelineEntryRepository timelineEntryRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BackfillService backfillService;
+
+    @Value("${app.timeline.owner-cache-size:100000}")
+    private long ownerCacheSize;
+
+    // Parcourt tous les transferts une seule fois : la reprise terminée est enregistrée (backfill_state)
+    @Value("${app.timeline.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    private Cache<Long, Long> owners;
+
+    @PostConstruct
+    public void init() {
+        owners = Caffeine.newBuilder()
+                .maximumSize(ownerCacheSize)
+                .build();
+        if (backfillOnStartup && !backfillService.isCompleted(BACKFILL)) {
+            backfill();
+            backfillService.markCompleted(BACKFILL);
+        }
+    }
+
+    // Dans la transaction qui insère les transferts : les identifiants sont déjà attribués
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Collection<Transfer> transfers) {
+        Set<Long> accountIds = new HashSet<>();
+        for (Transfer transfer : transfers) {
+            accountIds.add(transfer.getFromAccount().getId());
+            accountIds.add(transfer.getToAccount().getId());
+        }
+        Map<Long, Long> ownerIds = ownerIds(accountIds);
+
+        List<TimelineEntry> entries = new ArrayList<>(transfers.size() * 2);
+        for (Transfer transfer : transfers) {
+            Long sender = ownerIds.get(transfer.getFromAccount().getId());
+            Long recipient = ownerIds.get(transfer.getToAccount().getId());
+            entries.add(new TimelineEntry(sender, transfer));
+            if (!recipient.equals(sender)) {
+                entries.add(new TimelineEntry(recipient, transfer));
+            }
+        }
+        timelineEntryRepository.saveAll(entries);
+    }
+
+    /** Titulaire de chaque compte (identifiant utilisateur), depuis le cache ; une requête pour les absents. */
+    public Map<Long, Long> ownerIds(Set<Long> accountIds) {
+        return owners.getAll(accountIds, this::loadOwners);
+    }
+
+    private Map<Long, Long> loadOwners(Set<? extends Long> accountIds) {
+        Map<Long, Long> loaded = new HashMap<>();
+        for (AccountOwner owner : accountRepository.findOwners(new ArrayList<>(accountIds))) {
+            loaded.put(owner.accountId(), owner.userId());
+        }
+        return loaded;
+    }
+
+    // Transferts antérieurs à la timeline, par tranches d'identifiants validées séparément ;
+    // chaque tranche ignore les lignes existantes, deux instances peuvent donc la rejouer sans risque
+    private void backfill() {
+        long maxId = transferRepository.findMaxId().orElse(0L);
+        int[] inserted = {0};
+        for (long from = 0; from < maxId; from += BACKFILL_CHUNK_SIZE) {
+            long fromId = from;
+            long toId = from + BACKFILL_CHUNK_SIZE;
+            transactionTemplate.executeWithoutResult(status -> inserted[0] +=
+                    timelineEntryRepository.backfillSenders(fromId, toId)
+                            + timelineEntryRepository.backfillRecipients(fromId, toId));
+        }
+        if (inserted[0] > 0) {
+            logger.info("Timeline reprise pour les transferts existants : {} lignes", inserted[0]);
+        }
+    }
+}
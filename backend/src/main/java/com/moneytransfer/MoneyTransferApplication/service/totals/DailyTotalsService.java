@@ -0,0 +1,251 @@
+package com.moneytransfer.MoneyTransferApplication.service.totals;
+
+import com.moneytransfer.MoneyTransferApplication.dto.ActivitySummary;
+import com.moneytransfer.MoneyTransferApplication.dto.DailyActivity;
+import com.moneytransfer.MoneyTransferApplication.dto.DailyMovement;
+import com.moneytransfer.MoneyTransferApplication.entity.Account;
+import com.moneytransfer.MoneyTransferApplication.entity.BackfillState;
+import com.moneytransfer.MoneyTransferApplication.entity.DailyTotal.Scope;
+import com.moneytransfer.MoneyTransferApplication.entity.Transfer;
+import com.moneytransfer.MoneyTransferApplication.entity.Transfer.TransferStatus;
+import com.moneytransfer.MoneyTransferApplication.repository.DailyTotalRepository;
+import com.moneytransfer.MoneyTransferApplication.service.backfill.BackfillService;
+import com.moneytransfer.MoneyTransferApplication.service.timeline.TimelineService;
+import jakarta.annotation.PostConstruct;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cumuls journaliers par utilisateur et par compte (nombre et montant envoyés / reçus).
+ *
+ * Chaque transaction qui valide des transferts incrémente ses lignes par un upsert groupé
+ * en un batch JDBC : le résumé se lit sur une ligne par jour actif, quelle que soit la
+ * longueur de l'historique. Un transfert entre deux comptes du même titulaire ne compte,
+ * pour l'utilisateur, qu'en envoi (comme dans son historique).
+ */
+@Service
+public class DailyTotalsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyTotalsService.class);
+
+    // Cas courant : la ligne du jour existe déjà
+    private static final String INCREMENT = "UPDATE daily_totals SET sent_count = sent_count + ?, "
+            + "received_count = received_count + ?, total_sent = total_sent + ?, total_received = total_received + ? "
+            + "WHERE scope = ? AND owner_id = ? AND activity_date = ? AND bucket = ?";
+
+    // Premier transfert du jour : syntaxe MySQL (acceptée par H2 en mode MySQL), sûre si deux transactions créent la même ligne
+    private static final String UPSERT = "INSERT INTO daily_totals "
+            + "(scope, owner_id, activity_date, bucket, sent_count, received_count, total_sent, total_received) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+            + "sent_count = sent_count + VALUES(sent_count), received_count = received_count + VALUES(received_count), "
+            + "total_sent = total_sent + VALUES(total_sent), total_received = total_received + VALUES(total_received)";
+
+    static final String BACKFILL = "daily-totals";
+
+    private record Key(Scope scope, Long ownerId, LocalDate day, int bucket) {
+        // Ordre de l'index unique : deux transactions verrouillent leurs lignes dans le même ordre
+        static final Comparator<Key> ORDER = Comparator.comparing((Key key) -> key.scope().name())
+                .thenComparing(Key::ownerId)
+                .thenComparing(Key::day)
+                .thenComparingInt(Key::bucket);
+    }
+
+    private static final class Totals {
+        private long sentCount;
+        private long receivedCount;
+        private BigDecimal totalSent = BigDecimal.ZERO;
+        private BigDecimal totalReceived = BigDecimal.ZERO;
+
+        void sent(long count, BigDecimal amount) {
+            sentCount += count;
+            totalSent = totalSent.add(amount);
+        }
+
+        void received(long count, BigDecimal amount) {
+            receivedCount += count;
+            totalReceived = totalReceived.add(amount);
+        }
+    }
+
+    @Autowired
+    private DailyTotalRepository dailyTotalRepository;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BackfillService backfillService;
+
+    @Value("${app.totals.max-days:366}")
+    private int maxDays;
+
+    // Une seule fois, toutes instances confondues (backfill_state)
+    @Value("${app.totals.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @PostConstruct
+    public void init() {
+        if (backfillOnStartup && !backfillService.isCompleted(BACKFILL)) {
+            backfill();
+        }
+    }
+
+    // Dans la transaction qui valide les transferts (statut COMPLETED uniquement)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Collection<Transfer> transfers) {
+        if (transfers.isEmpty()) {
+            return;
+        }
+        Set<Long> accountIds = new HashSet<>();
+        for (Transfer transfer : transfers) {
+            accountIds.add(transfer.getFromAccount().getId());
+            accountIds.add(transfer.getToAccount().getId());
+        }
+        Map<Long, Long> ownerIds = timelineService.ownerIds(accountIds);
+
+        Map<Key, Totals> totals = new TreeMap<>(Key.ORDER);
+        for (Transfer transfer : transfers) {
+            LocalDate day = transfer.getCreatedAt().toLocalDate();
+            BigDecimal amount = transfer.getAmount();
+            Account from = transfer.getFromAccount();
+            Account to = transfer.getToAccount();
+            int fromBucket = bucket(from);
+            int toBucket = bucket(to);
+            Long sender = ownerIds.get(from.getId());
+            Long recipient = ownerIds.get(to.getId());
+
+            totals.computeIfAbsent(new Key(Scope.ACCOUNT, from.getId(), day, fromBucket), key -> new Totals()).sent(1, amount);
+            totals.computeIfAbsent(new Key(Scope.ACCOUNT, to.getId(), day, toBucket), key -> new Totals()).received(1, amount);
+            totals.computeIfAbsent(new Key(Scope.USER, sender, day, fromBucket), key -> new Totals()).sent(1, amount);
+            if (!recipient.equals(sender)) {
+                totals.computeIfAbsent(new Key(Scope.USER, recipient, day, toBucket), key -> new Totals()).received(1, amount);
+            }
+        }
+        upsert(totals);
+    }
+
+    // Un compte partitionné reçoit en parallèle sur ses sous-soldes : ses cumuls (et ceux de son titulaire)
+    // sont répartis de la même façon pour ne pas recréer une ligne chaude
+    private static int bucket(Account account) {
+        // Référence non chargée (moteur ledger) : un seul bucket, sans requête supplémentaire
+        if (!Hibernate.isInitialized(account) || !account.isSharded()) {
+            return 0;
+        }
+        return ThreadLocalRandom.current().nextInt(account.getSlotCount());
+    }
+
+    // Un batch d'UPDATE, puis un batch d'upsert pour les seules lignes absentes ; l'upsert seul coûte plus cher
+    // sur une ligne existante (tentative d'insertion puis mise à jour) alors qu'elle est verrouillée par les transferts
+    private void upsert(Map<Key, Totals> totals) {
+        List<Key> keys = new ArrayList<>(totals.keySet());
+        List<Object[]> increments = new ArrayList<>(keys.size());
+        for (Key key : keys) {
+            Totals value = totals.get(key);
+            increments.add(new Object[]{value.sentCount, value.receivedCount, value.totalSent, value.totalReceived,
+                    key.scope().name(), key.ownerId(), key.day(), key.bucket()});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(INCREMENT, increments);
+
+        List<Object[]> missing = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (updated[i] == 0) {
+                Key key = keys.get(i);
+                Totals value = totals.get(key);
+                missing.add(new Object[]{key.scope().name(), key.ownerId(), key.day(), key.bucket(),
+                        value.sentCount, value.receivedCount, value.totalSent, value.totalReceived});
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT, missing);
+        }
+    }
+
+    /** Résumé de l'utilisateur du {@code from} au {@code to} inclus : lignes des jours actifs seulement. */
+    @Transactional(readOnly = true)
+    public ActivitySummary getSummary(String email, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new RuntimeException("La date de début doit précéder la date de fin");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new RuntimeException("La période ne peut pas dépasser " + maxDays + " jours");
+        }
+
+        List<DailyActivity> days = dailyTotalRepository.findUserDays(email, from, to);
+        Totals sum = new Totals();
+        for (DailyActivity day : days) {
+            sum.sent(day.sentCount(), day.totalSent());
+            sum.received(day.receivedCount(), day.totalReceived());
+        }
+        return new ActivitySummary(from, to, sum.sentCount, sum.receivedCount, sum.totalSent, sum.totalReceived,
+                days, dailyTotalRepository.findAccountTotals(email, from, to));
+    }
+
+    // Transferts antérieurs aux cumuls, regroupés par jour en base, sous le verrou de la ligne backfill_state :
+    // une instance qui démarre en même temps attend la fin de la transaction et trouve la reprise terminée
+    private void backfill() {
+        Integer created = transactionTemplate.execute(status -> {
+            BackfillState state = backfillService.lock(BACKFILL);
+            if (state.getCompletedAt() != null) {
+                return 0;
+            }
+            // Cumuls déjà présents sans trace de reprise (base antérieure à ce suivi) : ils sont conservés
+            if (dailyTotalRepository.existsAny()) {
+                state.setCompletedAt(LocalDateTime.now());
+                return 0;
+            }
+
+            Map<Key, Totals> totals = new TreeMap<>(Key.ORDER);
+            for (DailyMovement movement : dailyTotalRepository.sumSentByAccount(TransferStatus.COMPLETED)) {
+                totals(totals, Scope.ACCOUNT, movement).sent(movement.count(), movement.total());
+            }
+            for (DailyMovement movement : dailyTotalRepository.sumReceivedByAccount(TransferStatus.COMPLETED)) {
+                totals(totals, Scope.ACCOUNT, movement).received(movement.count(), movement.total());
+            }
+            for (DailyMovement movement : dailyTotalRepository.sumSentByUser(TransferStatus.COMPLETED)) {
+                totals(totals, Scope.USER, movement).sent(movement.count(), movement.total());
+            }
+            for (DailyMovement movement : dailyTotalRepository.sumReceivedByUser(TransferStatus.COMPLETED)) {
+                totals(totals, Scope.USER, movement).received(movement.count(), movement.total());
+            }
+            if (!totals.isEmpty()) {
+                upsert(totals);
+            }
+            state.setCompletedAt(LocalDateTime.now());
+            return totals.size();
+        });
+        if (created != null && created > 0) {
+            logger.info("Cumuls journaliers repris pour les transferts existants : {} lignes", created);
+        }
+    }
+
+    private static Totals totals(Map<Key, Totals> totals, Scope scope, DailyMovement movement) {
+        return totals.computeIfAbsent(new Key(scope, movement.ownerId(), movement.day(), 0), key -> new Totals());
+    }
+}
@@ -0,0 +1,104 @@
+package com.moneytransfer.MoneyTransferApplication.service.versions;
+
+import com.moneytransfer.MoneyTransferApplication.entity.Transfer;
+import com.moneytransfer.MoneyTransferApplication.service.timeline.TimelineService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Version des données d'un utilisateur (comptes, historique), source des ETag des GET.
+ *
+ * Une ligne par utilisateur (user_versions), incrémentée dans la transaction même qui touche un
+ * de ses comptes : la version et les données sont validées ensemble, et toutes les instances lisent
+ * la même version. Un GET conditionnel coûte une lecture par clé primaire au lieu de la requête
+ * complète. Un utilisateur sans ligne n'a jamais été modifié depuis son inscription (version 0).
+ */
+@Service
+public class UserVersionService {
+
+    // Syntaxe MySQL (acceptée par H2 en mode MySQL), sûre si deux transactions créent la même ligne
+    private static final String UPSERT = "INSERT INTO user_versions (user_id, version, changed_at_ms) VALUES (?, 1, ?) "
+            + "ON DUPLICATE KEY UPDATE version = version + 1, changed_at_ms = VALUES(changed_at_ms)";
+
+    private static final String SELECT = "SELECT version, changed_at_ms FROM user_versions WHERE user_id = ?";
+
+    private record Stamp(long version, long changedAtMs) {
+    }
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.etag.enabled:true}")
+    private boolean enabled;
+
+    // Avec des réplicas, une lecture juste après une modification peut encore renvoyer l'ancien état :
+    // pas d'ETag tant que le retard toléré n'est pas écoulé (même fenêtre que l'épinglage sur le primaire)
+    @Value("#{'${app.datasource.replica-urls:}' == '' ? 0 : "
+            + "${app.datasource.replica-max-lag-ms:2000} + ${app.datasource.replica-check-interval-ms:1000}}")
+    private long settleMs;
+
+    // Dans la transaction qui insère ou modifie les transferts : titulaires des deux comptes
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Collection<Transfer> transfers) {
+        if (transfers.isEmpty()) {
+            return;
+        }
+        Set<Long> accountIds = new HashSet<>();
+        for (Transfer transfer : transfers) {
+            accountIds.add(transfer.getFromAccount().getId());
+            accountIds.add(transfer.getToAccount().getId());
+        }
+        changed(timelineService.ownerIds(accountIds).values());
+    }
+
+    /**
+     * Nouvelle version pour ces utilisateurs, dans la transaction en cours s'il y en a une.
+     * Écrite même si les ETag sont désactivés : les réactiver ne servira jamais une version périmée.
+     */
+    public void changed(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        // Ordre croissant : deux transactions verrouillent les mêmes lignes dans le même ordre
+        long now = System.currentTimeMillis();
+        List<Object[]> rows = new ArrayList<>(userIds.size());
+        for (Long userId : new TreeSet<>(userIds)) {
+            rows.add(new Object[] {userId, now});
+        }
+        jdbcTemplate.batchUpdate(UPSERT, rows);
+    }
+
+    /** ETag fort des données de l'utilisateur, ou null si elles ne doivent pas être mises en cache. */
+    public String etag(Long userId) {
+        if (!enabled || userId == null) {
+            return null;
+        }
+        // Hors transaction readOnly : lue sur le primaire, jamais en retard sur les données
+        Stamp stamp = jdbcTemplate.query(SELECT,
+                resultSet -> resultSet.next() ? new Stamp(resultSet.getLong(1), resultSet.getLong(2)) : new Stamp(0, 0),
+                userId);
+        if (settleMs > 0 && System.currentTimeMillis() - stamp.changedAtMs() < settleMs) {
+            return null;
+        }
+        // Identifiant inclus : deux utilisateurs d'un même navigateur n'ont jamais le même ETag pour une URL
+        return "\"" + userId + "-" + stamp.version() + "\"";
+    }
+
+    /** ETag d'un compte : celui de son titulaire. */
+    public String accountEtag(Long accountId) {
+        return etag(timelineService.ownerIds(Set.of(accountId)).get(accountId));
+    }
+}
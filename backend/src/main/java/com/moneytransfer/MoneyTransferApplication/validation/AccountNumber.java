@@ -0,0 +1,21 @@
+package com.moneytransfer.MoneyTransferApplication.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Numéro de compte bien formé (chiffre de contrôle compris) ; null est accepté, comme pour les contraintes standard
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = AccountNumberValidator.class)
+public @interface AccountNumber {
+
+    String message() default "Numéro de compte invalide";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
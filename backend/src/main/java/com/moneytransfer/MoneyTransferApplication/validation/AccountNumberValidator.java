@@ -0,0 +1,13 @@
+package com.moneytransfer.MoneyTransferApplication.validation;
+
+import com.moneytransfer.MoneyTransferApplication.service.AccountNumberGenerator;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class AccountNumberValidator implements ConstraintValidator<AccountNumber, String> {
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        return value == null || AccountNumberGenerator.isValid(value);
+    }
+}
@@ -0,0 +1,58 @@
+package com.moneytransfer.MoneyTransferApplication;
+
+import com.moneytransfer.MoneyTransferApplication.dto.LoginRequest;
+import com.moneytransfer.MoneyTransferApplication.dto.RegisterRequest;
+import com.moneytransfer.MoneyTransferApplication.dto.TransferRequest;
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.service.AuthService;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Jeux de données des tests d'intégration : emails, téléphones et pièces d'identité uniques par contexte
+public final class TestData {
+
+    public static final String PASSWORD = "secret1";
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private TestData() {}
+
+    public static RegisterRequest registration(String name) {
+        int n = SEQUENCE.incrementAndGet();
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail(name + n + "@test.com");
+        request.setPassword(PASSWORD);
+        request.setFirstName(name);
+        request.setLastName("Test");
+        request.setPhoneNumber("+22177" + String.format("%07d", n));
+        request.setCountry("SN");
+        request.setProfilePhoto("photo");
+        request.setIdNumber("ID" + n);
+        request.setIdPhoto("id-photo");
+        return request;
+    }
+
+    // Nouvel utilisateur avec son compte par défaut (AuthService.WELCOME_BALANCE)
+    public static User register(AuthService authService, String name) {
+        return authService.register(registration(name));
+    }
+
+    // En-tête Authorization d'un utilisateur inscrit par register()
+    public static String bearer(AuthService authService, User user) {
+        return "Bearer " + authService.login(new LoginRequest(user.getEmail(), PASSWORD)).get("token");
+    }
+
+    public static String defaultAccount(AccountRepository accountRepository, User user) {
+        return accountRepository.findByUserId(user.getId()).get(0).getAccountNumber();
+    }
+
+    public static TransferRequest transfer(String from, String to, String amount) {
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber(from);
+        request.setToAccountNumber(to);
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+}
@@ -0,0 +1,76 @@
+package com.moneytransfer.MoneyTransferApplication.config;
+
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.service.AuthService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void healthIsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void metricsNeedTheMonitoringAccountRatherThanAUserToken() throws Exception {
+        User user = TestData.register(authService, "scraper");
+
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", TestData.bearer(authService, user)))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics").with(httpBasic("monitoring", "mauvais")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics").with(httpBasic("monitoring", "test-actuator")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.names").isArray());
+    }
+
+    @Test
+    void statementsAreCountedForPlainRequestsOnly() throws Exception {
+        User user = TestData.register(authService, "counted");
+        String account = TestData.defaultAccount(accountRepository, user);
+        String bearer = TestData.bearer(authService, user);
+
+        mockMvc.perform(get("/api/accounts").header("Authorization", bearer))
+                .andExpect(status().isOk());
+        assertNotNull(meterRegistry.find("hibernate.statements.request").tag("uri", "/api/accounts").summary());
+
+        // Export en flux : requête asynchrone, non mesurée
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/transfers/export").param("accountNumber", account)
+                        .header("Authorization", bearer))
+                .andExpect(request().asyncStarted())
+                .andReturn()))
+                .andExpect(status().isOk());
+        assertNull(meterRegistry.find("hibernate.statements.request").tag("uri", "/api/transfers/export").summary());
+    }
+}
@@ -0,0 +1,64 @@
+package com.moneytransfer.MoneyTransferApplication.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "app.diagnostics.pinning.enabled=true",
+        "app.diagnostics.pinning.threshold-ms=20"
+})
+@ActiveProfiles("test")
+class VirtualThreadModeTest {
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @Test
+    void springExecutorsRunOnVirtualThreadsButHashingStaysOnPlatformThreads() throws Exception {
+        assertTrue(applicationTaskExecutor.submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS));
+        ExecutorService passwordHashingExecutor = (ExecutorService) ReflectionTestUtils.getField(passwordEncoder, "executor");
+        assertFalse(passwordHashingExecutor.submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS));
+        assertTrue(passwordEncoder.matches("secret1", passwordEncoder.encode("secret1")));
+    }
+
+    @Test
+    void reportsAVirtualThreadPinnedInsideSynchronized() throws Exception {
+        long before = pinningMonitor.getPinnedCount();
+        Object lock = new Object();
+        Thread pinned = Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        pinned.join();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pinningMonitor.getPinnedCount() == before && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(pinningMonitor.getPinnedCount() > before);
+    }
+}
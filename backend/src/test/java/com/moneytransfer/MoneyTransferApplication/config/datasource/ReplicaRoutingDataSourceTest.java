@@ -0,0 +1,130 @@
+package com.moneytransfer.MoneyTransferApplication.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Une base H2 par source ; chacune contient son nom, et les réplicas leur retard
+class ReplicaRoutingDataSourceTest {
+
+    private HikariDataSource primary;
+    private List<ReplicaRoutingDataSource.Replica> replicas;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = database("primary");
+        replicas = List.of(
+                new ReplicaRoutingDataSource.Replica("replica-1", database("replica-1")),
+                new ReplicaRoutingDataSource.Replica("replica-2", database("replica-2")));
+        for (ReplicaRoutingDataSource.Replica replica : replicas) {
+            execute(replica.dataSource, "CREATE TABLE replica_lag(seconds BIGINT)", "INSERT INTO replica_lag VALUES (0)",
+                    "CREATE USER reader PASSWORD 'lecture' ADMIN");
+        }
+        routing = new ReplicaRoutingDataSource(primary, replicas, "SELECT seconds FROM replica_lag",
+                2000, 1, new SimpleMeterRegistry());
+        routing.checkReplicas();
+    }
+
+    @AfterEach
+    void tearDown() {
+        routing.close();
+        primary.close();
+    }
+
+    @Test
+    void readsAlternateBetweenHealthyReplicas() throws SQLException {
+        Set<String> targets = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            targets.add(target(routing.getConnection()));
+        }
+        assertEquals(Set.of("replica-1", "replica-2"), targets);
+    }
+
+    @Test
+    void laggingOrUnreachableReplicasFallBackToThePrimary() throws SQLException {
+        execute(replicas.get(0).dataSource, "UPDATE replica_lag SET seconds = 30");
+        routing.checkReplicas();
+        for (int i = 0; i < 3; i++) {
+            assertEquals("replica-2", target(routing.getConnection()));
+        }
+
+        replicas.get(1).dataSource.close();
+        assertEquals("primary", target(routing.getConnection()));
+        assertFalse(replicas.get(1).healthy);
+    }
+
+    @Test
+    void writerStaysOnThePrimary() throws SQLException {
+        PrimaryPinning pinning = new PrimaryPinning(Duration.ofSeconds(5), 100);
+        MockHttpServletRequest write = new MockHttpServletRequest("POST", "/api/transfers");
+        pinning.preHandle(write, new MockHttpServletResponse(), null);
+        try {
+            assertEquals("primary", target(routing.getConnection()));
+            assertEquals("primary", target(routing.getConnection("sa", "")));
+        } finally {
+            pinning.afterCompletion(write, new MockHttpServletResponse(), null, null);
+        }
+        assertTrue(target(routing.getConnection()).startsWith("replica-"));
+    }
+
+    @Test
+    void explicitCredentialsAreRoutedLikePooledReads() throws SQLException {
+        assertTrue(target(routing.getConnection("sa", "")).startsWith("replica-"));
+
+        try (Connection connection = routing.getConnection("reader", "lecture")) {
+            assertEquals("READER", connection.getMetaData().getUserName());
+            assertTrue(target(connection).startsWith("replica-"));
+        }
+
+        // Mot de passe refusé : erreur renvoyée, réplicas conservés
+        assertThrows(SQLException.class, () -> routing.getConnection("reader", "faux"));
+        assertTrue(replicas.get(0).healthy);
+        assertTrue(replicas.get(1).healthy);
+    }
+
+    private static HikariDataSource database(String name) throws SQLException {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        dataSource.setMaximumPoolSize(2);
+        dataSource.setConnectionTimeout(250);
+        execute(dataSource, "CREATE TABLE source(name VARCHAR(20))", "INSERT INTO source VALUES ('" + name + "')");
+        return dataSource;
+    }
+
+    private static void execute(HikariDataSource dataSource, String... sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (String query : sql) {
+                statement.execute(query);
+            }
+        }
+    }
+
+    // Nom de la base derrière la connexion, qui est ensuite rendue
+    private static String target(Connection connection) throws SQLException {
+        try (connection; Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name FROM source")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.moneytransfer.MoneyTransferApplication.controller;
+
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.service.AuthService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AccountOwnershipTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void onlyTheOwnerCanExport() throws Exception {
+        User owner = TestData.register(authService, "exportowner");
+        User other = TestData.register(authService, "exportother");
+        String account = TestData.defaultAccount(accountRepository, owner);
+
+        export(account, other)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Ce compte ne vous appartient pas"));
+        export(account, owner)
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void exportOfAnUnknownAccountIsRejected() throws Exception {
+        export("INCONNU", TestData.register(authService, "noaccount"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Compte introuvable"));
+    }
+
+    @Test
+    void onlyTheOwnerCanEnableSharding() throws Exception {
+        User owner = TestData.register(authService, "slotowner");
+        User other = TestData.register(authService, "slotother");
+        String account = TestData.defaultAccount(accountRepository, owner);
+
+        mockMvc.perform(post("/api/accounts/" + account + "/slots").param("count", "4")
+                        .header("Authorization", TestData.bearer(authService, other)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Ce compte ne vous appartient pas"));
+        mockMvc.perform(post("/api/accounts/" + account + "/slots").param("count", "4")
+                        .header("Authorization", TestData.bearer(authService, owner)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true));
+    }
+
+    private ResultActions export(String accountNumber, User user) throws Exception {
+        return mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/transfers/export")
+                        .param("accountNumber", accountNumber)
+                        .header("Authorization", TestData.bearer(authService, user)))
+                .andExpect(request().asyncStarted())
+                .andReturn()));
+    }
+}
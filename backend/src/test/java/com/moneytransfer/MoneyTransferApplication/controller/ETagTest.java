@@ -0,0 +1,118 @@
+package com.moneytransfer.MoneyTransferApplication.controller;
+
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.service.AuthService;
+import com.moneytransfer.MoneyTransferApplication.service.TransferService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ETagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void unchangedDataIsRevalidatedWithA304() throws Exception {
+        User owner = TestData.register(authService, "etagowner");
+        String bearer = TestData.bearer(authService, owner);
+        String account = TestData.defaultAccount(accountRepository, owner);
+
+        for (String url : new String[] {"/api/accounts", "/api/transfers", "/api/accounts/" + account}) {
+            String etag = fetch(url, bearer, null)
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Cache-Control", "no-cache, private"))
+                    .andReturn().getResponse().getHeader("ETag");
+            assertNotNull(etag, url);
+
+            fetch(url, bearer, etag)
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        }
+    }
+
+    @Test
+    void aTransferChangesTheEtagOfBothParticipants() throws Exception {
+        User sender = TestData.register(authService, "etagsender");
+        User recipient = TestData.register(authService, "etagrecipient");
+        String senderBearer = TestData.bearer(authService, sender);
+        String recipientBearer = TestData.bearer(authService, recipient);
+        String senderEtag = etag("/api/transfers", senderBearer);
+        String recipientEtag = etag("/api/accounts", recipientBearer);
+
+        transferService.createTransfer(TestData.transfer(TestData.defaultAccount(accountRepository, sender),
+                TestData.defaultAccount(accountRepository, recipient), "4.00"));
+
+        fetch("/api/transfers", senderBearer, senderEtag)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1));
+        fetch("/api/accounts", recipientBearer, recipientEtag)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].balance").value(1004.0));
+    }
+
+    @Test
+    void versionsAreSharedThroughTheDatabase() throws Exception {
+        User user = TestData.register(authService, "etagshared");
+        String bearer = TestData.bearer(authService, user);
+        String etag = etag("/api/accounts", bearer);
+
+        // Modification validée par une autre instance : seule la base en garde la trace
+        jdbcTemplate.update("INSERT INTO user_versions (user_id, version, changed_at_ms) VALUES (?, 1, ?) "
+                + "ON DUPLICATE KEY UPDATE version = version + 1", user.getId(), System.currentTimeMillis());
+
+        String changed = fetch("/api/accounts", bearer, etag)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void usersNeverShareAnEtag() throws Exception {
+        User first = TestData.register(authService, "etagfirst");
+        User second = TestData.register(authService, "etagsecond");
+        String firstEtag = etag("/api/accounts", TestData.bearer(authService, first));
+
+        // Même navigateur, autre utilisateur : l'ETag du premier ne vaut pas pour le second
+        fetch("/api/accounts", TestData.bearer(authService, second), firstEtag)
+                .andExpect(status().isOk());
+    }
+
+    private String etag(String url, String bearer) throws Exception {
+        return fetch(url, bearer, null).andReturn().getResponse().getHeader("ETag");
+    }
+
+    private ResultActions fetch(String url, String bearer, String ifNoneMatch) throws Exception {
+        var request = get(url).header("Authorization", bearer);
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return mockMvc.perform(request);
+    }
+}
@@ -0,0 +1,90 @@
+package com.moneytransfer.MoneyTransferApplication.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.service.AuthService;
+import com.moneytransfer.MoneyTransferApplication.service.TransferService;
+import com.moneytransfer.MoneyTransferApplication.service.idempotency.IdempotencyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotentTransferTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void resentTransferIsReplayedInsteadOfDebitedTwice() throws Exception {
+        User payer = TestData.register(authService, "idempayer");
+        String from = TestData.defaultAccount(accountRepository, payer);
+        String to = TestData.defaultAccount(accountRepository, TestData.register(authService, "idempayee"));
+        String bearer = TestData.bearer(authService, payer);
+        String key = UUID.randomUUID().toString();
+        String body = objectMapper.writeValueAsString(TestData.transfer(from, to, "25.00"));
+
+        String first = send(bearer, key, body)
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString();
+        String second = send(bearer, key, body)
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.readTree(first), objectMapper.readTree(second));
+        assertEquals(1, transferService.getTransferViews(payer.getEmail()).size());
+        assertEquals(0, new BigDecimal("975.00").compareTo(accountRepository.findByAccountNumber(from).get().getBalance()));
+    }
+
+    @Test
+    void sameKeyWithAnotherAmountIsRejected() throws Exception {
+        User payer = TestData.register(authService, "idemreuse");
+        String from = TestData.defaultAccount(accountRepository, payer);
+        String to = TestData.defaultAccount(accountRepository, TestData.register(authService, "idemreusepeer"));
+        String bearer = TestData.bearer(authService, payer);
+        String key = UUID.randomUUID().toString();
+
+        send(bearer, key, objectMapper.writeValueAsString(TestData.transfer(from, to, "5.00")))
+                .andExpect(status().isOk());
+        send(bearer, key, objectMapper.writeValueAsString(TestData.transfer(from, to, "6.00")))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    private ResultActions send(String bearer, String key, String body) throws Exception {
+        return mockMvc.perform(post("/api/transfers")
+                .header("Authorization", bearer)
+                .header(IdempotencyService.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+}
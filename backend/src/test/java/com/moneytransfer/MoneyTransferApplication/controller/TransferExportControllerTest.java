@@ -0,0 +1,69 @@
+package com.moneytransfer.MoneyTransferApplication.controller;
+
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.service.AuthService;
+import com.moneytransfer.MoneyTransferApplication.service.TransferService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransferExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void streamsTheExportAsAnAttachment() throws Exception {
+        User owner = TestData.register(authService, "httpexporter");
+        String from = TestData.defaultAccount(accountRepository, owner);
+        String to = TestData.defaultAccount(accountRepository, TestData.register(authService, "httpexportpeer"));
+        transferService.createTransfer(TestData.transfer(from, to, "12.00"));
+
+        MvcResult started = mockMvc.perform(get("/api/transfers/export").param("accountNumber", from).param("format", "csv")
+                        .header("Authorization", TestData.bearer(authService, owner)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", containsString("transferts-" + from + ".csv")))
+                .andExpect(content().string(containsString("," + from + "," + to + ",12.00,")));
+    }
+
+    @Test
+    void reportsErrorsAsJson() throws Exception {
+        User owner = TestData.register(authService, "badformat");
+        String account = TestData.defaultAccount(accountRepository, owner);
+
+        MvcResult started = mockMvc.perform(get("/api/transfers/export").param("accountNumber", account).param("format", "xml")
+                        .header("Authorization", TestData.bearer(authService, owner)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Format d'export non supporté : xml"));
+    }
+}
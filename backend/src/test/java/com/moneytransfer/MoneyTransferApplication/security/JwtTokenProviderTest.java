@@ -0,0 +1,60 @@
+package com.moneytransfer.MoneyTransferApplication.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    @Test
+    void authenticatesAValidTokenAndServesItFromTheCache() {
+        JwtTokenProvider provider = provider(3600000);
+        String token = provider.generateToken(authentication("alice@test.com"), 42L);
+
+        JwtPrincipal principal = provider.authenticate(token);
+        assertNotNull(principal);
+        assertEquals("alice@test.com", principal.email());
+        assertEquals(42L, principal.userId());
+        assertSame(principal, provider.authenticate(token));
+    }
+
+    @Test
+    void rejectsTamperedAndForeignTokens() {
+        JwtTokenProvider provider = provider(3600000);
+        String token = provider.generateToken(authentication("bob@test.com"), 7L);
+
+        assertNull(provider.authenticate(token.substring(0, token.length() - 2) + "xx"));
+        assertNull(provider.authenticate("pas-un-jeton"));
+    }
+
+    @Test
+    void cachedTokenIsRejectedOnceExpired() throws InterruptedException {
+        // Expiration JWT à la seconde près : au moins une seconde de validité
+        JwtTokenProvider provider = provider(2000);
+        String token = provider.generateToken(authentication("carol@test.com"), 3L);
+        assertNotNull(provider.authenticate(token));
+
+        Thread.sleep(2100);
+        assertNull(provider.authenticate(token));
+    }
+
+    private static JwtTokenProvider provider(int expirationMs) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", "test-secret-test-secret-test-secret-test-secret");
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", expirationMs);
+        ReflectionTestUtils.setField(provider, "cacheSize", 100);
+        provider.init();
+        return provider;
+    }
+
+    private static Authentication authentication(String email) {
+        User principal = new User(email, "", List.of());
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
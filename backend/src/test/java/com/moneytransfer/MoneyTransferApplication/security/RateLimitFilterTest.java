@@ -0,0 +1,80 @@
+package com.moneytransfer.MoneyTransferApplication.security;
+
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+import com.moneytransfer.MoneyTransferApplication.service.AuthService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Serveur réel : l'adresse du client passe par la valve Tomcat (X-Forwarded-For), absente de MockMvc
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.rate-limit.enabled=true",
+        "app.rate-limit.auth.capacity=2",
+        "app.rate-limit.auth.per-second=0.01",
+        "app.rate-limit.api.capacity=3",
+        "app.rate-limit.api.per-second=0.01"
+})
+@ActiveProfiles("test")
+class RateLimitFilterTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AuthService authService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void anonymousClientsAreLimitedByForwardedAddress() throws Exception {
+        assertEquals(400, login("203.0.113.7").statusCode());
+        assertEquals(400, login("203.0.113.7").statusCode());
+
+        HttpResponse<String> rejected = login("203.0.113.7");
+        assertEquals(429, rejected.statusCode());
+        assertTrue(Long.parseLong(rejected.headers().firstValue("Retry-After").orElseThrow()) >= 1);
+        assertTrue(rejected.body().contains("Trop de requêtes"), rejected.body());
+
+        // Même proxy (boucle locale), client différent : seau distinct
+        assertEquals(400, login("203.0.113.8").statusCode());
+    }
+
+    @Test
+    void authenticatedUsersAreLimitedIndividually() throws Exception {
+        User first = TestData.register(authService, "limited");
+        User second = TestData.register(authService, "unlimited");
+        String firstToken = TestData.bearer(authService, first);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, accounts(firstToken).statusCode());
+        }
+        assertEquals(429, accounts(firstToken).statusCode());
+        // Même adresse, autre utilisateur
+        assertEquals(200, accounts(TestData.bearer(authService, second)).statusCode());
+    }
+
+    private HttpResponse<String> login(String forwardedFor) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", forwardedFor)
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"inconnu@test.com\",\"password\":\"mauvais\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> accounts(String authorization) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/accounts"))
+                .header("Authorization", authorization)
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
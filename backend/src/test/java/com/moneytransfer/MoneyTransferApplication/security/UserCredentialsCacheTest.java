@@ -0,0 +1,65 @@
+package com.moneytransfer.MoneyTransferApplication.security;
+
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.config.CacheConfig;
+import com.moneytransfer.MoneyTransferApplication.dto.UserCredentials;
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+import com.moneytransfer.MoneyTransferApplication.repository.UserRepository;
+import com.moneytransfer.MoneyTransferApplication.service.AuthService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserCredentialsCacheTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void cachesAnImmutableProjectionRatherThanTheEntity() {
+        User user = TestData.register(authService, "cached");
+        userDetailsService.loadUserByUsername(user.getEmail());
+
+        Cache.ValueWrapper cached = cacheManager.getCache(CacheConfig.USERS_BY_EMAIL).get(user.getEmail());
+        assertNotNull(cached);
+        assertInstanceOf(UserCredentials.class, cached.get());
+
+        // Une entité modifiée sans être enregistrée ne doit pas changer ce que voient les lectures suivantes
+        User loaded = userRepository.findByEmail(user.getEmail()).orElseThrow();
+        loaded.setRole(User.Role.ADMIN);
+        assertFalse(authService.isAdmin(user.getEmail()));
+    }
+
+    @Test
+    void passwordUpdateIsPersistedAndEvicted() {
+        User user = TestData.register(authService, "rehash");
+        UserDetails details = userDetailsService.loadUserByUsername(user.getEmail());
+
+        String newHash = passwordEncoder.encode("nouveau1");
+        userDetailsService.updatePassword(details, newHash);
+
+        assertEquals(newHash, userRepository.findByEmail(user.getEmail()).orElseThrow().getPassword());
+        assertEquals(newHash, userDetailsService.loadUserByUsername(user.getEmail()).getPassword());
+    }
+}
@@ -0,0 +1,105 @@
+package com.moneytransfer.MoneyTransferApplication.service;
+
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountNumberCounterRepository;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountNumberGeneratorTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountNumberCounterRepository accountNumberCounterRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void registrationOpensAnAccountWithAFreshNumber() {
+        Set<String> numbers = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            String number = TestData.defaultAccount(accountRepository, TestData.register(authService, "numbered"));
+            assertTrue(number.startsWith(AccountNumberGenerator.PREFIX), number);
+            assertTrue(numbers.add(number), "numéro attribué deux fois : " + number);
+        }
+    }
+
+    @Test
+    void checkDigitCatchesTyposAndSwaps() {
+        String number = AccountNumberGenerator.format(1234567890L);
+        assertEquals("ACC1234567890", number.substring(0, 13));
+        assertTrue(AccountNumberGenerator.isValid(number));
+
+        // Un chiffre modifié, à chaque position
+        for (int i = AccountNumberGenerator.PREFIX.length(); i < number.length(); i++) {
+            char digit = number.charAt(i);
+            String typo = number.substring(0, i) + (char) ('0' + (digit - '0' + 1) % 10) + number.substring(i + 1);
+            assertFalse(AccountNumberGenerator.isValid(typo), typo);
+        }
+        // Deux chiffres voisins différents inversés
+        String swapped = "ACC2134567890" + number.charAt(number.length() - 1);
+        assertFalse(AccountNumberGenerator.isValid(swapped), swapped);
+    }
+
+    @Test
+    void rejectsMalformedNumbersButAcceptsLegacyOnes() {
+        assertTrue(AccountNumberGenerator.isValid("ACC0A1B2C3D4E"));
+        assertFalse(AccountNumberGenerator.isValid(null));
+        assertFalse(AccountNumberGenerator.isValid("ACC123"));
+        assertFalse(AccountNumberGenerator.isValid("XYZ" + AccountNumberGenerator.format(42L).substring(3)));
+        assertFalse(AccountNumberGenerator.isValid("ACC12345678A01"));
+    }
+
+    @Test
+    void instancesNeverShareARange() throws Exception {
+        // Deux instances de l'application : même compteur en base, plages distinctes
+        List<AccountNumberGenerator> generators = List.of(generator(7), generator(7));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                AccountNumberGenerator generator = generators.get(i % 2);
+                futures.add(pool.submit(generator::generate));
+            }
+            Set<String> numbers = new HashSet<>();
+            for (Future<String> future : futures) {
+                String number = future.get();
+                assertTrue(AccountNumberGenerator.isValid(number), number);
+                assertTrue(numbers.add(number), "numéro attribué deux fois : " + number);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private AccountNumberGenerator generator(int blockSize) {
+        AccountNumberGenerator generator = new AccountNumberGenerator();
+        ReflectionTestUtils.setField(generator, "accountNumberCounterRepository", accountNumberCounterRepository);
+        ReflectionTestUtils.setField(generator, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(generator, "blockSize", blockSize);
+        generator.init();
+        return generator;
+    }
+}
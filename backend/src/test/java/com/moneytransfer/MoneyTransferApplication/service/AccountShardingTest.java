@@ -0,0 +1,70 @@
+package com.moneytransfer.MoneyTransferApplication.service;
+
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.entity.Account;
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountSlotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountShardingTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountSlotRepository accountSlotRepository;
+
+    @Test
+    void creditsGoToSlotsAndDebitSweepsThem() {
+        User merchant = TestData.register(authService, "merchant");
+        User customer = TestData.register(authService, "customer");
+        String merchantAccount = TestData.defaultAccount(accountRepository, merchant);
+        String customerAccount = TestData.defaultAccount(accountRepository, customer);
+
+        Account account = accountService.getAccountByNumber(merchantAccount).orElseThrow();
+        accountService.enableSharding(account, 4);
+        for (int i = 0; i < 10; i++) {
+            transferService.createTransfer(TestData.transfer(customerAccount, merchantAccount, "10.00"));
+        }
+
+        Account sharded = accountService.getAccountWithBalance(merchantAccount).orElseThrow();
+        assertEquals(4, sharded.getSlotCount());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(sharded.getBalance()), "crédits sur les sous-soldes");
+        assertEquals(0, new BigDecimal("100.00").compareTo(accountSlotRepository.sumBalanceByAccountId(sharded.getId())));
+        assertEquals(0, new BigDecimal("1100.00").compareTo(sharded.getTotalBalance()));
+
+        // Le solde principal ne suffit pas : les sous-soldes sont rapatriés avant le débit
+        transferService.createTransfer(TestData.transfer(merchantAccount, customerAccount, "1100.00"));
+        Account drained = accountService.getAccountWithBalance(merchantAccount).orElseThrow();
+        assertEquals(0, drained.getTotalBalance().signum());
+    }
+
+    @Test
+    void rejectsInvalidSlotCount() {
+        User user = TestData.register(authService, "slots");
+        Account account = accountService.getAccountByNumber(TestData.defaultAccount(accountRepository, user)).orElseThrow();
+
+        assertThrows(RuntimeException.class, () -> accountService.enableSharding(account, 1));
+        accountService.enableSharding(account, 3);
+        assertThrows(RuntimeException.class, () -> accountService.enableSharding(account, 2));
+    }
+}
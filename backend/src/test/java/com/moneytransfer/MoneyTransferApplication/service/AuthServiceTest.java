@@ -0,0 +1,55 @@
+package com.moneytransfer.MoneyTransferApplication.service;
+
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.dto.LoginRequest;
+import com.moneytransfer.MoneyTransferApplication.dto.RegisterRequest;
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+import com.moneytransfer.MoneyTransferApplication.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthServiceTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void registrationStoresTheEmailAsUsername() {
+        User user = TestData.register(authService, "username");
+
+        assertEquals(user.getEmail(), userRepository.findById(user.getId()).orElseThrow().getUsername());
+    }
+
+    @Test
+    void severalUsersCanRegisterAndLogIn() {
+        User first = TestData.register(authService, "first");
+        User second = TestData.register(authService, "second");
+
+        for (User user : new User[]{first, second}) {
+            Map<String, Object> login = authService.login(new LoginRequest(user.getEmail(), TestData.PASSWORD));
+            assertNotNull(login.get("token"));
+        }
+    }
+
+    @Test
+    void rejectsAnEmailAlreadyRegistered() {
+        RegisterRequest request = TestData.registration("twice");
+        authService.register(request);
+
+        RegisterRequest again = TestData.registration("twice");
+        again.setEmail(request.getEmail());
+        RuntimeException e = assertThrows(RuntimeException.class, () -> authService.register(again));
+        assertEquals("Email déjà utilisé", e.getMessage());
+    }
+}
@@ -0,0 +1,83 @@
+package com.moneytransfer.MoneyTransferApplication.service;
+
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ConcurrentTransferTest {
+
+    private static final int ACCOUNTS = 4;
+    private static final int THREADS_PER_EDGE = 3;
+    private static final int TRANSFERS_PER_THREAD = 40;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void concurrentRingLosesNoUpdate() throws Exception {
+        List<String> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(TestData.defaultAccount(accountRepository, TestData.register(authService, "ring" + i)));
+        }
+
+        // Chaque compte i envoie (i + 1) EUR au suivant : montants différents pour qu'une écriture perdue se voie
+        AtomicIntegerArray completed = new AtomicIntegerArray(ACCOUNTS);
+        ExecutorService pool = Executors.newFixedThreadPool(ACCOUNTS * THREADS_PER_EDGE);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int edge = 0; edge < ACCOUNTS; edge++) {
+                int from = edge;
+                String amount = (from + 1) + ".00";
+                for (int t = 0; t < THREADS_PER_EDGE; t++) {
+                    futures.add(pool.submit(() -> {
+                        for (int n = 0; n < TRANSFERS_PER_THREAD; n++) {
+                            transferService.createTransfer(TestData.transfer(
+                                    accounts.get(from), accounts.get((from + 1) % ACCOUNTS), amount));
+                            completed.incrementAndGet(from);
+                        }
+                    }));
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < ACCOUNTS; i++) {
+            int previous = (i + ACCOUNTS - 1) % ACCOUNTS;
+            BigDecimal sent = BigDecimal.valueOf((long) completed.get(i) * (i + 1));
+            BigDecimal received = BigDecimal.valueOf((long) completed.get(previous) * (previous + 1));
+            BigDecimal expected = AuthService.WELCOME_BALANCE.subtract(sent).add(received);
+            BigDecimal balance = accountRepository.findByAccountNumber(accounts.get(i)).get().getBalance();
+            assertEquals(0, expected.compareTo(balance), "compte " + i + " : attendu " + expected + ", trouvé " + balance);
+            total = total.add(balance);
+        }
+        assertEquals(0, AuthService.WELCOME_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)).compareTo(total));
+        assertEquals(ACCOUNTS * THREADS_PER_EDGE * TRANSFERS_PER_THREAD,
+                completed.get(0) + completed.get(1) + completed.get(2) + completed.get(3));
+    }
+}
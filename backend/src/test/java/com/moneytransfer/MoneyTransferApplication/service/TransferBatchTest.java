@@ -0,0 +1,56 @@
+package com.moneytransfer.MoneyTransferApplication.service;
+
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.dto.TransferResult;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.repository.TransferRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransferBatchTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Test
+    void rejectedItemsDoNotStopTheRestOfTheBatch() {
+        String a = TestData.defaultAccount(accountRepository, TestData.register(authService, "batcha"));
+        String b = TestData.defaultAccount(accountRepository, TestData.register(authService, "batchb"));
+
+        List<TransferResult> results = transferService.createTransfers(List.of(
+                TestData.transfer(a, b, "600.00"),
+                TestData.transfer(a, b, "600.00"),      // solde insuffisant après le premier
+                TestData.transfer(b, "ACC00000000000", "1.00"),
+                TestData.transfer(b, a, "100.00")));
+
+        assertEquals(List.of(true, false, false, true), results.stream().map(TransferResult::isSuccess).toList());
+        assertEquals(List.of(0, 1, 2, 3), results.stream().map(TransferResult::getIndex).toList());
+        assertNotNull(results.get(0).getTransferId());
+        assertTrue(transferRepository.findById(results.get(3).getTransferId()).isPresent());
+        assertEquals(0, new BigDecimal("500.00").compareTo(accountRepository.findByAccountNumber(a).orElseThrow().getBalance()));
+        assertEquals(0, new BigDecimal("1500.00").compareTo(accountRepository.findByAccountNumber(b).orElseThrow().getBalance()));
+    }
+
+    @Test
+    void rejectsEmptyBatch() {
+        assertThrows(RuntimeException.class, () -> transferService.createTransfers(List.of()));
+    }
+}
@@ -0,0 +1,76 @@
+package com.moneytransfer.MoneyTransferApplication.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.dto.TransferRequest;
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransferExportServiceTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private TransferExportService transferExportService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportsEveryTransferOfTheAccountNewestFirst() throws Exception {
+        String from = TestData.defaultAccount(accountRepository, TestData.register(authService, "exporter"));
+        String to = TestData.defaultAccount(accountRepository, TestData.register(authService, "exportpeer"));
+        for (int i = 1; i <= 3; i++) {
+            transferService.createTransfer(TestData.transfer(from, to, i + ".00"));
+        }
+        Long accountId = accountRepository.findByAccountNumber(from).get().getId();
+
+        List<String> lines = export(accountId, TransferExportService.Format.NDJSON);
+        assertEquals(3, lines.size());
+        JsonNode newest = objectMapper.readTree(lines.get(0));
+        assertEquals(from, newest.get("fromAccountNumber").asText());
+        assertEquals(to, newest.get("toAccountNumber").asText());
+        assertEquals("3.00", newest.get("amount").decimalValue().setScale(2).toPlainString());
+    }
+
+    @Test
+    void quotesCsvFields() throws Exception {
+        String from = TestData.defaultAccount(accountRepository, TestData.register(authService, "csvexporter"));
+        String to = TestData.defaultAccount(accountRepository, TestData.register(authService, "csvpeer"));
+        TransferRequest request = TestData.transfer(from, to, "1.50");
+        request.setDescription("loyer, \"mars\"");
+        transferService.createTransfer(request);
+        Long accountId = accountRepository.findByAccountNumber(to).get().getId();
+
+        List<String> lines = export(accountId, TransferExportService.Format.CSV);
+        assertEquals(2, lines.size());
+        assertEquals("id,createdAt,fromAccountNumber,toAccountNumber,amount,description,status", lines.get(0));
+        assertTrue(lines.get(1).contains("," + from + "," + to + ",1.50,\"loyer, \"\"mars\"\"\","), lines.get(1));
+    }
+
+    private List<String> export(Long accountId, TransferExportService.Format format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transferExportService.export(accountId, format, out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+}
@@ -0,0 +1,62 @@
+package com.moneytransfer.MoneyTransferApplication.service;
+
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.dto.TransferPage;
+import com.moneytransfer.MoneyTransferApplication.dto.TransferView;
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransferPageTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void cursorWalksTheWholeHistoryNewestFirst() {
+        User owner = TestData.register(authService, "pager");
+        String a = TestData.defaultAccount(accountRepository, owner);
+        String b = TestData.defaultAccount(accountRepository, TestData.register(authService, "pagerpeer"));
+        for (int i = 1; i <= 7; i++) {
+            transferService.createTransfer(TestData.transfer(i % 2 == 0 ? a : b, i % 2 == 0 ? b : a, i + ".00"));
+        }
+
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransferPage<TransferView> page = transferService.getTransferPage(owner.getEmail(), cursor, 3);
+            assertTrue(page.getItems().size() <= 3);
+            page.getItems().forEach(transfer -> paged.add(transfer.id()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        List<Long> all = transferService.getTransferViews(owner.getEmail()).stream().map(TransferView::id).toList();
+        assertEquals(7, all.size());
+        assertEquals(all, paged);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        User owner = TestData.register(authService, "badcursor");
+        assertThrows(RuntimeException.class, () -> transferService.getTransferPage(owner.getEmail(), "pas-un-curseur", 10));
+    }
+}
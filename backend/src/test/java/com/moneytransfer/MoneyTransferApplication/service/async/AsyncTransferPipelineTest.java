@@ -0,0 +1,179 @@
+package com.moneytransfer.MoneyTransferApplication.service.async;
+
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.entity.Transfer;
+import com.moneytransfer.MoneyTransferApplication.entity.Transfer.TransferStatus;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.repository.TransferRepository;
+import com.moneytransfer.MoneyTransferApplication.service.AuthService;
+import com.moneytransfer.MoneyTransferApplication.service.TransferOutcomeUnknownException;
+import com.moneytransfer.MoneyTransferApplication.service.TransferRejectedException;
+import com.moneytransfer.MoneyTransferApplication.service.TransferService;
+import com.moneytransfer.MoneyTransferApplication.service.timeline.TimelineService;
+import com.moneytransfer.MoneyTransferApplication.service.totals.DailyTotalsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = {
+        "app.transfers.async.enabled=true",
+        "app.transfers.async.max-attempts=2",
+        "app.transfers.async.accept-timeout-ms=500"
+})
+@ActiveProfiles("test")
+class AsyncTransferPipelineTest {
+
+    // Montant dont l'application échoue toujours sur une erreur technique
+    private static final BigDecimal POISON = new BigDecimal("13.13");
+
+    // Montant dont l'enregistrement dépasse le délai d'acceptation
+    private static final BigDecimal SLOW = new BigDecimal("17.17");
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AsyncTransferPipeline asyncTransferPipeline;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoSpyBean
+    private DailyTotalsService dailyTotalsService;
+
+    @MockitoSpyBean
+    private TimelineService timelineService;
+
+    @Test
+    void pendingTransfersEndCompletedOrFailed() throws InterruptedException {
+        String a = TestData.defaultAccount(accountRepository, TestData.register(authService, "asynca"));
+        String b = TestData.defaultAccount(accountRepository, TestData.register(authService, "asyncb"));
+
+        Transfer accepted = transferService.submitTransfer(TestData.transfer(a, b, "10.00"));
+        Transfer refused = transferService.submitTransfer(TestData.transfer(a, b, "5000.00"));
+        assertEquals(TransferStatus.PENDING, accepted.getStatus());
+        assertEquals(TransferStatus.PENDING, refused.getStatus());
+
+        assertEquals(TransferStatus.COMPLETED, awaitFinalStatus(accepted.getId()));
+        assertEquals(TransferStatus.FAILED, awaitFinalStatus(refused.getId()));
+        assertEquals("Solde insuffisant", transferService.getFailureReason(refused.getId()).orElseThrow());
+        assertEquals(0, new BigDecimal("990.00").compareTo(accountRepository.findByAccountNumber(a).get().getBalance()));
+    }
+
+    @Test
+    void technicalFailureEndsFailedAfterTheLastAttempt() throws InterruptedException {
+        // Dans une transaction : l'appel de paramétrage traverse aussi le proxy (propagation MANDATORY)
+        transactionTemplate.executeWithoutResult(status -> doAnswer(invocation -> {
+            Collection<Transfer> transfers = invocation.getArgument(0);
+            if (transfers.stream().anyMatch(transfer -> POISON.compareTo(transfer.getAmount()) == 0)) {
+                throw new IllegalStateException("panne simulée");
+            }
+            return invocation.callRealMethod();
+        }).when(dailyTotalsService).record(anyCollection()));
+        String a = TestData.defaultAccount(accountRepository, TestData.register(authService, "asyncpoison"));
+        String b = TestData.defaultAccount(accountRepository, TestData.register(authService, "asyncpeer"));
+
+        Transfer poisoned = transferService.submitTransfer(TestData.transfer(a, b, POISON.toPlainString()));
+        Transfer healthy = transferService.submitTransfer(TestData.transfer(a, b, "1.00"));
+
+        assertEquals(TransferStatus.FAILED, awaitFinalStatus(poisoned.getId()));
+        assertEquals("Erreur technique, transfert non effectué",
+                transferService.getFailureReason(poisoned.getId()).orElseThrow());
+        assertEquals(TransferStatus.COMPLETED, awaitFinalStatus(healthy.getId()));
+        // Seul le transfert sain a débité le compte
+        assertEquals(0, new BigDecimal("999.00").compareTo(accountRepository.findByAccountNumber(a).get().getBalance()));
+    }
+
+    @Test
+    void slowAcceptanceReportsAnUnknownOutcome() throws InterruptedException {
+        transactionTemplate.executeWithoutResult(status -> doAnswer(invocation -> {
+            Collection<Transfer> transfers = invocation.getArgument(0);
+            if (transfers.stream().anyMatch(transfer -> SLOW.compareTo(transfer.getAmount()) == 0)) {
+                Thread.sleep(1500);
+            }
+            return invocation.callRealMethod();
+        }).when(timelineService).record(anyCollection()));
+        String a = TestData.defaultAccount(accountRepository, TestData.register(authService, "asyncslow"));
+        String b = TestData.defaultAccount(accountRepository, TestData.register(authService, "asyncslowpeer"));
+
+        assertThrows(TransferOutcomeUnknownException.class,
+                () -> transferService.submitTransfer(TestData.transfer(a, b, SLOW.toPlainString())));
+
+        // Le transfert est tout de même enregistré puis appliqué en arrière-plan
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline
+                && accountRepository.findByAccountNumber(a).get().getBalance().compareTo(new BigDecimal("1000.00")) == 0) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, new BigDecimal("1000.00").subtract(SLOW)
+                .compareTo(accountRepository.findByAccountNumber(a).get().getBalance()));
+    }
+
+    @Test
+    @DirtiesContext
+    void stopDrainsAcceptedSubmissionsAndRejectsNewOnes() throws Exception {
+        String a = TestData.defaultAccount(accountRepository, TestData.register(authService, "asyncstop"));
+        String b = TestData.defaultAccount(accountRepository, TestData.register(authService, "asyncstoppeer"));
+
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        List<Future<Transfer>> submitted = new ArrayList<>();
+        try {
+            for (int i = 0; i < 40; i++) {
+                submitted.add(clients.submit(() -> transferService.submitTransfer(TestData.transfer(a, b, "1.00"))));
+            }
+            assertTimeoutPreemptively(Duration.ofSeconds(10), asyncTransferPipeline::stop);
+
+            // Chaque soumission a une réponse : acceptée (en base) ou refusée, jamais bloquée
+            for (Future<Transfer> future : submitted) {
+                try {
+                    Transfer transfer = future.get();
+                    assertTrue(transferRepository.existsById(transfer.getId()));
+                } catch (Exception e) {
+                    assertInstanceOf(TransferRejectedException.class, e.getCause());
+                }
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        assertThrows(TransferRejectedException.class,
+                () -> transferService.submitTransfer(TestData.transfer(a, b, "1.00")));
+    }
+
+    private TransferStatus awaitFinalStatus(Long transferId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            TransferStatus status = transferRepository.findViewById(transferId).orElseThrow().status();
+            if (status != TransferStatus.PENDING) {
+                return status;
+            }
+            Thread.sleep(20);
+        }
+        return TransferStatus.PENDING;
+    }
+}
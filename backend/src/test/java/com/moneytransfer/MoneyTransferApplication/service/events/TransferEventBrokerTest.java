@@ -0,0 +1,163 @@
+package com.moneytransfer.MoneyTransferApplication.service.events;
+
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.controller.EventController;
+import com.moneytransfer.MoneyTransferApplication.dto.TransferRequest;
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.service.AuthService;
+import com.moneytransfer.MoneyTransferApplication.service.TransferService;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitterReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.events.subscriber-buffer=4",
+        "app.events.writer-threads=2"
+})
+@ActiveProfiles("test")
+class TransferEventBrokerTest {
+
+    @Autowired
+    private TransferEventBroker transferEventBroker;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void slowSubscriberIsDroppedWithoutDelayingOthers() throws Exception {
+        User payer = TestData.register(authService, "ssepayer");
+        User stuck = TestData.register(authService, "ssestuck");
+        User reader = TestData.register(authService, "ssereader");
+        String payerAccount = TestData.defaultAccount(accountRepository, payer);
+        String stuckAccount = TestData.defaultAccount(accountRepository, stuck);
+        String readerAccount = TestData.defaultAccount(accountRepository, reader);
+
+        // Le client bloqué ne lit jamais : la première écriture reste suspendue
+        CountDownLatch unblock = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        int subscribersBefore = transferEventBroker.getSubscriberCount();
+        connect(transferEventBroker.subscribe(stuck.getEmail()), () -> {
+            blocked.countDown();
+            unblock.await();
+        });
+        ByteArrayOutputStream readerStream = connect(transferEventBroker.subscribe(reader.getEmail()), () -> {});
+        long droppedBefore = transferEventBroker.getDroppedCount();
+
+        try {
+            transferService.createTransfer(TestData.transfer(payerAccount, stuckAccount, "1.00"));
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+            List<TransferRequest> burst = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                burst.add(TestData.transfer(payerAccount, stuckAccount, "1.00"));
+            }
+            transferService.createTransfers(burst);
+            awaitTrue(() -> transferEventBroker.getDroppedCount() > droppedBefore);
+            assertEquals(subscribersBefore + 1, transferEventBroker.getSubscriberCount());
+
+            // L'écriture vers le client bloqué est toujours suspendue : les autres reçoivent quand même leurs événements
+            transferService.createTransfer(TestData.transfer(payerAccount, readerAccount, "2.00"));
+            awaitTrue(() -> body(readerStream).contains("event:balance"));
+            assertTrue(body(readerStream).contains("event:transfer"));
+        } finally {
+            unblock.countDown();
+        }
+    }
+
+    interface Block {
+        void run() throws InterruptedException;
+    }
+
+    private static String body(ByteArrayOutputStream out) {
+        synchronized (out) {
+            return out.toString(StandardCharsets.UTF_8).replace(" ", "");
+        }
+    }
+
+    // Branche l'emitter sur une réponse dont chaque écriture passe d'abord par block
+    private ByteArrayOutputStream connect(SseEmitter emitter, Block block) throws Exception {
+        assertNotNull(emitter);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+            private final ServletOutputStream stream = new ServletOutputStream() {
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                }
+
+                @Override
+                public void write(int b) {
+                    write(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    try {
+                        block.run();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    synchronized (out) {
+                        out.write(b, off, len);
+                    }
+                }
+            };
+
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return stream;
+            }
+        };
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        WebAsyncUtils.getAsyncManager(webRequest).setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+        MethodParameter returnType = new MethodParameter(EventController.class.getMethod("subscribe", Authentication.class), -1);
+        new ResponseBodyEmitterReturnValueHandler(List.of(new StringHttpMessageConverter(StandardCharsets.UTF_8)))
+                .handleReturnValue(emitter, returnType, new ModelAndViewContainer(), webRequest);
+        return out;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition non remplie dans les délais");
+            Thread.sleep(20);
+        }
+    }
+}
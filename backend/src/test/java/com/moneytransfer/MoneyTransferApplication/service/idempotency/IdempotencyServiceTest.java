@@ -0,0 +1,179 @@
+package com.moneytransfer.MoneyTransferApplication.service.idempotency;
+
+import com.moneytransfer.MoneyTransferApplication.dto.ApiResponse;
+import com.moneytransfer.MoneyTransferApplication.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.idempotency.wait-timeout-ms=300")
+@ActiveProfiles("test")
+class IdempotencyServiceTest {
+
+    private static final String OWNER = "idem@test.com";
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Test
+    void replaysTheFirstResponseWithoutRunningAgain() {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+
+        ResponseEntity<?> first = idempotencyService.execute(OWNER, key, "hash", () -> ok(runs));
+        ResponseEntity<?> second = idempotencyService.execute(OWNER, key, "hash", () -> ok(runs));
+
+        assertEquals(1, runs.get());
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals("{\"success\":true,\"message\":\"exécuté 1\",\"data\":null}", second.getBody());
+        assertNull(first.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void rejectsAKeyReusedForAnotherRequest() {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+        idempotencyService.execute(OWNER, key, "hash", () -> ok(runs));
+
+        IdempotencyException e = assertThrows(IdempotencyException.class,
+                () -> idempotencyService.execute(OWNER, key, "autre", () -> ok(runs)));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatus());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void concurrentDuplicatesRunOnce() throws Exception {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ResponseEntity<?>>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return idempotencyService.execute(OWNER, key, "hash", () -> {
+                        sleep(100);
+                        return ok(runs);
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<ResponseEntity<?>> response : responses) {
+                assertEquals(HttpStatus.OK, response.get(10, TimeUnit.SECONDS).getStatusCode());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void failedExecutionReleasesTheKey() {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(OWNER, key, "hash", () -> {
+            throw new IllegalStateException("panne");
+        }));
+        assertTrue(idempotencyRecordRepository.findById(OWNER + " " + key).isEmpty());
+
+        ResponseEntity<?> retried = idempotencyService.execute(OWNER, key, "hash", () -> ok(runs));
+        assertEquals(HttpStatus.OK, retried.getStatusCode());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void outcomeUnknownIsNotRunAgain() {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+
+        ResponseEntity<?> timeout = idempotencyService.execute(OWNER, key, "hash", () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(new ApiResponse(false, "délai"));
+        });
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, timeout.getStatusCode());
+
+        ResponseEntity<?> retried = idempotencyService.execute(OWNER, key, "hash", () -> ok(runs));
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, retried.getStatusCode());
+        assertEquals("true", retried.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void unavailableReleasesTheKey() {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+
+        ResponseEntity<?> saturated = idempotencyService.execute(OWNER, key, "hash",
+                () -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ApiResponse(false, "saturé")));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, saturated.getStatusCode());
+        assertTrue(idempotencyRecordRepository.findById(OWNER + " " + key).isEmpty());
+
+        idempotencyService.execute(OWNER, key, "hash", () -> ok(runs));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void duplicateGivesUpWaitingAfterTheTimeout() throws Exception {
+        String key = UUID.randomUUID().toString();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ResponseEntity<?>> first = executor.submit(() -> idempotencyService.execute(OWNER, key, "hash", () -> {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return ok(runs);
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+
+            IdempotencyException e = assertThrows(IdempotencyException.class,
+                    () -> idempotencyService.execute(OWNER, key, "hash", () -> ok(runs)));
+            assertEquals(HttpStatus.CONFLICT, e.getStatus());
+
+            release.countDown();
+            assertEquals(HttpStatus.OK, first.get(5, TimeUnit.SECONDS).getStatusCode());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        assertEquals(1, runs.get());
+    }
+
+    private static ResponseEntity<?> ok(AtomicInteger runs) {
+        return ResponseEntity.ok(new ApiResponse(true, "exécuté " + runs.incrementAndGet()));
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
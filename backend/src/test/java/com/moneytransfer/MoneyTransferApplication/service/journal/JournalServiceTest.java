@@ -0,0 +1,103 @@
+package com.moneytransfer.MoneyTransferApplication.service.journal;
+
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.entity.BalanceCheckpoint;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.repository.BalanceCheckpointRepository;
+import com.moneytransfer.MoneyTransferApplication.service.AuthService;
+import com.moneytransfer.MoneyTransferApplication.service.TransferService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sans délai : le point de contrôle arrête les soldes à l'instant de l'appel
+@SpringBootTest(properties = "app.journal.checkpoint-lag-ms=0")
+@ActiveProfiles("test")
+class JournalServiceTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private BalanceCheckpointRepository balanceCheckpointRepository;
+
+    @Test
+    void balanceAtCombinesTheCheckpointWithLaterEntries() throws InterruptedException {
+        LocalDateTime beforeOpening = LocalDateTime.now().minusDays(1);
+        String a = TestData.defaultAccount(accountRepository, TestData.register(authService, "journala"));
+        String b = TestData.defaultAccount(accountRepository, TestData.register(authService, "journalb"));
+        Long aId = accountRepository.findByAccountNumber(a).get().getId();
+        Long bId = accountRepository.findByAccountNumber(b).get().getId();
+
+        transferService.createTransfer(TestData.transfer(a, b, "10.00"));
+        transferService.createTransfers(List.of(
+                TestData.transfer(a, b, "5.00"),
+                TestData.transfer(b, a, "1.00")));
+        LocalDateTime afterFirstTransfers = pause();
+
+        journalService.checkpoint();
+        BalanceCheckpoint checkpoint = balanceCheckpointRepository
+                .findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(aId, LocalDateTime.now()).orElseThrow();
+        assertEquals(0, new BigDecimal("986.00").compareTo(checkpoint.getBalance()));
+
+        transferService.createTransfer(TestData.transfer(a, b, "100.00"));
+        pause();
+        journalService.checkpoint();
+        transferService.createTransfer(TestData.transfer(a, b, "1.25"));
+
+        // Avant le second point de contrôle, après, et après la dernière écriture non arrêtée
+        assertBalance("986.00", journalService.balanceAt(aId, afterFirstTransfers));
+        assertBalance("1014.00", journalService.balanceAt(bId, afterFirstTransfers));
+        assertBalance("884.75", journalService.balanceAt(aId, LocalDateTime.now()));
+        assertBalance("1115.25", journalService.balanceAt(bId, LocalDateTime.now()));
+        assertBalance("0", journalService.balanceAt(aId, beforeOpening));
+
+        // Le journal rejoue exactement le solde courant
+        assertBalance(accountRepository.findByAccountNumber(a).get().getBalance().toPlainString(),
+                journalService.balanceAt(aId, LocalDateTime.now()));
+    }
+
+    @Test
+    void checkpointWithoutMovementAddsNothing() throws InterruptedException {
+        String a = TestData.defaultAccount(accountRepository, TestData.register(authService, "journalidle"));
+        Long aId = accountRepository.findByAccountNumber(a).get().getId();
+        pause();
+        journalService.checkpoint();
+        LocalDateTime first = balanceCheckpointRepository
+                .findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(aId, LocalDateTime.now()).orElseThrow().getAsOf();
+
+        pause();
+        journalService.checkpoint();
+        assertEquals(first, balanceCheckpointRepository
+                .findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(aId, LocalDateTime.now()).orElseThrow().getAsOf());
+        assertBalance("1000.00", journalService.balanceAt(aId, LocalDateTime.now()));
+    }
+
+    // Sépare nettement les horodatages des écritures et des points de contrôle
+    private static LocalDateTime pause() throws InterruptedException {
+        Thread.sleep(20);
+        LocalDateTime now = LocalDateTime.now();
+        Thread.sleep(20);
+        return now;
+    }
+
+    private static void assertBalance(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "attendu " + expected + ", trouvé " + actual);
+    }
+}
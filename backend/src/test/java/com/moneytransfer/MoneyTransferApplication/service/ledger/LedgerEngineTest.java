@@ -0,0 +1,86 @@
+package com.moneytransfer.MoneyTransferApplication.service.ledger;
+
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.dto.TransferRequest;
+import com.moneytransfer.MoneyTransferApplication.entity.Transfer;
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.repository.TransferRepository;
+import com.moneytransfer.MoneyTransferApplication.service.AuthService;
+import com.moneytransfer.MoneyTransferApplication.service.TransferRejectedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"app.transfers.engine=ledger", "app.ledger.flush-interval-ms=20"})
+@ActiveProfiles("test")
+class LedgerEngineTest {
+
+    @Autowired
+    private LedgerEngine ledgerEngine;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Test
+    void appliesInMemoryAndWritesBehind() throws InterruptedException {
+        String from = TestData.defaultAccount(accountRepository, TestData.register(authService, "ledgerfrom"));
+        String to = TestData.defaultAccount(accountRepository, TestData.register(authService, "ledgerto"));
+
+        Transfer first = ledgerEngine.transfer(TestData.transfer(from, to, "300.00"));
+        assertEquals(0, new BigDecimal("700.00").compareTo(first.getFromAccount().getBalance()));
+        assertEquals(0, new BigDecimal("1300.00").compareTo(first.getToAccount().getBalance()));
+        assertThrows(TransferRejectedException.class, () -> ledgerEngine.transfer(TestData.transfer(from, to, "700.01")));
+
+        await(() -> balance(from).compareTo(new BigDecimal("700.00")) == 0);
+        assertEquals(0, new BigDecimal("1300.00").compareTo(balance(to)));
+    }
+
+    @Test
+    void discardsEntriesTheDatabaseRejectsWithoutBlockingOthers() throws InterruptedException {
+        User sender = TestData.register(authService, "poison");
+        String from = TestData.defaultAccount(accountRepository, sender);
+        String to = TestData.defaultAccount(accountRepository, TestData.register(authService, "poisonto"));
+        long before = transferRepository.count();
+
+        // Description plus longue que la colonne : refusée par la base à chaque tentative
+        TransferRequest poison = TestData.transfer(from, to, "100.00");
+        poison.setDescription("x".repeat(300));
+        ledgerEngine.transfer(poison);
+        ledgerEngine.transfer(TestData.transfer(from, to, "50.00"));
+
+        await(() -> balance(from).compareTo(new BigDecimal("950.00")) == 0);
+        assertEquals(before + 1, transferRepository.count());
+        // Le montant écarté est rendu en mémoire : le solde restant est entièrement disponible
+        Transfer all = ledgerEngine.transfer(TestData.transfer(from, to, "950.00"));
+        assertEquals(0, all.getFromAccount().getBalance().signum());
+        await(() -> balance(from).signum() == 0);
+    }
+
+    private BigDecimal balance(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber).orElseThrow().getBalance();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition non atteinte en 10 s");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.moneytransfer.MoneyTransferApplication.service.onboarding;
+
+import com.moneytransfer.MoneyTransferApplication.dto.UserImportReport;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Petites tranches : un fichier trop long en remplirait plusieurs avant la ligne de trop
+@SpringBootTest(properties = {"app.import.chunk-size=2", "app.import.max-rows=5"})
+@ActiveProfiles("test")
+class UserImportServiceTest {
+
+    private static final String HEADER = "email,password,firstName,lastName,phoneNumber,country,profilePhoto,idNumber,idPhoto\n";
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void importsValidRowsAndReportsTheOthers() throws Exception {
+        String csv = HEADER
+                + row("import1", "+221700000001", "IMP1")
+                + "\n"
+                + row("import2", "+221700000002", "IMP2")
+                + row("import1", "+221700000003", "IMP3")
+                + "pas-un-email,secret1,A,B,+221700000004,SN,p,IMP4,i\n"
+                + "trop,peu\n";
+
+        UserImportReport report = userImportService.importUsers(input(csv), UserImportService.Format.CSV);
+
+        assertEquals(5, report.total());
+        assertEquals(2, report.imported());
+        assertEquals(3, report.errors().size());
+        assertEquals(5, report.errors().get(0).line());
+        // Première occurrence insérée par une tranche précédente
+        assertEquals("Email déjà utilisé", report.errors().get(0).message());
+        assertEquals(7, report.errors().get(2).line());
+        Long userId = userRepository.findByEmail("import2@import.test").orElseThrow().getId();
+        assertEquals(1, accountRepository.findByUserId(userId).size());
+    }
+
+    @Test
+    void tooManyRowsAreRejectedBeforeAnyInsert() {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 6; i++) {
+            csv.append(row("excess" + i, "+22171000000" + i, "EXC" + i));
+        }
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> userImportService.importUsers(input(csv.toString()), UserImportService.Format.CSV));
+        assertEquals("L'import est limité à 5 lignes", e.getMessage());
+        for (int i = 0; i < 6; i++) {
+            assertTrue(userRepository.findByEmail("excess" + i + "@import.test").isEmpty());
+        }
+    }
+
+    @Test
+    void blankLinesAndTheHeaderDoNotCountTowardsTheLimit() throws Exception {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 5; i++) {
+            csv.append(row("limit" + i, "+22172000000" + i, "LIM" + i)).append("\n");
+        }
+
+        UserImportReport report = userImportService.importUsers(input(csv.toString()), UserImportService.Format.CSV);
+        assertEquals(5, report.imported());
+    }
+
+    private static String row(String name, String phoneNumber, String idNumber) {
+        return name + "@import.test,secret1," + name + ",Test," + phoneNumber + ",SN,p," + idNumber + ",i\n";
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
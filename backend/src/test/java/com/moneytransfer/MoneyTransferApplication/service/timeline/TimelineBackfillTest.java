@@ -0,0 +1,69 @@
+package com.moneytransfer.MoneyTransferApplication.service.timeline;
+
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.entity.Transfer;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.repository.BackfillStateRepository;
+import com.moneytransfer.MoneyTransferApplication.service.AuthService;
+import com.moneytransfer.MoneyTransferApplication.service.TransferService;
+import com.moneytransfer.MoneyTransferApplication.service.backfill.BackfillService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TimelineBackfillTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private BackfillService backfillService;
+
+    @Autowired
+    private BackfillStateRepository backfillStateRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void backfillRunsOnceThenIsSkipped() {
+        // Premier démarrage du contexte : reprise faite et enregistrée
+        assertTrue(backfillService.isCompleted(TimelineService.BACKFILL));
+
+        String a = TestData.defaultAccount(accountRepository, TestData.register(authService, "backfilla"));
+        String b = TestData.defaultAccount(accountRepository, TestData.register(authService, "backfillb"));
+        Transfer transfer = transferService.createTransfer(TestData.transfer(a, b, "3.00"));
+        // Transfert antérieur à la timeline : ses lignes n'existent pas
+        jdbcTemplate.update("DELETE FROM transfer_timeline WHERE transfer_id = ?", transfer.getId());
+
+        // Redémarrage : la reprise n'est pas relancée
+        timelineService.init();
+        assertEquals(0, timelineRows(transfer));
+
+        // Sans trace de la reprise (base antérieure à ce suivi), elle est rejouée puis enregistrée
+        backfillStateRepository.deleteById(TimelineService.BACKFILL);
+        timelineService.init();
+        assertEquals(2, timelineRows(transfer));
+        assertTrue(backfillService.isCompleted(TimelineService.BACKFILL));
+    }
+
+    private int timelineRows(Transfer transfer) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transfer_timeline WHERE transfer_id = ?",
+                Integer.class, transfer.getId());
+    }
+}
@@ -0,0 +1,97 @@
+package com.moneytransfer.MoneyTransferApplication.service.totals;
+
+import com.moneytransfer.MoneyTransferApplication.TestData;
+import com.moneytransfer.MoneyTransferApplication.entity.User;
+import com.moneytransfer.MoneyTransferApplication.repository.AccountRepository;
+import com.moneytransfer.MoneyTransferApplication.repository.BackfillStateRepository;
+import com.moneytransfer.MoneyTransferApplication.service.AuthService;
+import com.moneytransfer.MoneyTransferApplication.service.TransferService;
+import com.moneytransfer.MoneyTransferApplication.service.backfill.BackfillService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DailyTotalsBackfillTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private DailyTotalsService dailyTotalsService;
+
+    @Autowired
+    private BackfillService backfillService;
+
+    @Autowired
+    private BackfillStateRepository backfillStateRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void instancesStartingTogetherBackfillOnlyOnce() throws Exception {
+        assertTrue(backfillService.isCompleted(DailyTotalsService.BACKFILL));
+
+        User sender = TestData.register(authService, "totalsa");
+        String a = TestData.defaultAccount(accountRepository, sender);
+        String b = TestData.defaultAccount(accountRepository, TestData.register(authService, "totalsb"));
+        transferService.createTransfer(TestData.transfer(a, b, "10.00"));
+        transferService.createTransfer(TestData.transfer(a, b, "5.00"));
+        assertSent("15.00", sender);
+
+        // Base antérieure aux cumuls : ni cumuls ni trace de reprise
+        jdbcTemplate.update("DELETE FROM daily_totals");
+        backfillStateRepository.deleteById(DailyTotalsService.BACKFILL);
+
+        // Deux instances qui démarrent en même temps
+        CyclicBarrier start = new CyclicBarrier(2);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> startInstance(start));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> startInstance(start));
+        CompletableFuture.allOf(first, second).get();
+
+        assertSent("15.00", sender);
+        assertTrue(backfillService.isCompleted(DailyTotalsService.BACKFILL));
+
+        // Reprise terminée : un redémarrage ne la relance pas
+        jdbcTemplate.update("DELETE FROM daily_totals");
+        dailyTotalsService.init();
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM daily_totals", Integer.class));
+
+        // Cumuls rétablis pour les autres tests du contexte
+        backfillStateRepository.deleteById(DailyTotalsService.BACKFILL);
+        dailyTotalsService.init();
+        assertSent("15.00", sender);
+    }
+
+    private void startInstance(CyclicBarrier start) {
+        try {
+            start.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        dailyTotalsService.init();
+    }
+
+    private void assertSent(String expected, User user) {
+        LocalDate today = LocalDate.now();
+        BigDecimal sent = dailyTotalsService.getSummary(user.getEmail(), today, today).totalSent();
+        assertEquals(0, new BigDecimal(expected).compareTo(sent), "attendu " + expected + ", trouvé " + sent);
+    }
+}
@@ -6,9 +6,10 @@ import { AuthService } from '../../services/auth.service';
 import { AccountService } from '../../services/account.service';
 import { TransferService } from '../../services/transfer.service';
 import { NotificationService } from '../../services/notification.service';
+import { EventService, ServerEvent } from '../../services/event.service';
 import { UserProfile } from '../../models/user.model';
 import { Account } from '../../models/account.model';
-import { TransferSummary, TransferStatus } from '../../models/transfer.model';
+import { ActivitySummary, TransferSummary, TransferStatus } from '../../models/transfer.model';
 import { CommonModule } from '@angular/common';
 import { formatDate } from '@angular/common';
 
@@ -40,9 +41,10 @@ export class DashboardComponent implements OnInit, OnDestroy {
   // Accounts data
   accounts: Account[] = [];
 
-  // Transfers data
+  // Transfers data : dernière page de l'historique et cumuls du mois calculés par le serveur
   recentTransfers: TransferSummary[] = [];
-  allTransfers: TransferSummary[] = [];
+  latestTransfers: TransferSummary[] = [];
+  monthSummary: ActivitySummary | null = null;
 
   // Statistics
   stats: DashboardStats = {
@@ -60,7 +62,8 @@ export class DashboardComponent implements OnInit, OnDestroy {
 
   // Configuration
   readonly RECENT_TRANSFERS_LIMIT = 5;
-  readonly REFRESH_INTERVAL = 30000; // 30 secondes
+  readonly LATEST_TRANSFERS_SIZE = 20; // échantillon pour le destinataire fréquent
+  readonly REFRESH_INTERVAL = 30000; // 30 secondes, si le flux d'événements est indisponible
 
   private destroy$ = new Subject<void>();
   private refreshInterval?: number;
@@ -70,6 +73,7 @@ export class DashboardComponent implements OnInit, OnDestroy {
     private accountService: AccountService,
     private transferService: TransferService,
     private notificationService: NotificationService,
+    private eventService: EventService,
     private router: Router
   ) {}
 
@@ -95,14 +99,56 @@ export class DashboardComponent implements OnInit, OnDestroy {
       return;
     }
 
+    // S'abonner avant le chargement pour ne manquer aucun transfert
+    this.setupLiveUpdates();
+
     // Charger les données initiales
     this.loadDashboardData();
+  }
+
+  // Mises à jour poussées par le serveur, actualisation périodique en secours
+  private setupLiveUpdates(): void {
+    if (!this.eventService.isSupported()) {
+      this.setupAutoRefresh();
+      return;
+    }
 
-    // Configurer l'actualisation automatique
-    this.setupAutoRefresh();
+    this.eventService.events().pipe(
+      takeUntil(this.destroy$)
+    ).subscribe({
+      next: event => this.applyServerEvent(event),
+      error: () => this.setupAutoRefresh()
+    });
+  }
+
+  private applyServerEvent(event: ServerEvent): void {
+    switch (event.type) {
+      case 'balance': {
+        const account = this.accounts.find(a => a.accountNumber === event.update.accountNumber);
+        if (account) {
+          account.balance = event.update.balance;
+          this.calculateStats();
+        }
+        break;
+      }
+      case 'transfer':
+        if (!this.latestTransfers.some(t => t.id === event.transfer.id)) {
+          const ownAccountNumbers = this.accounts.map(a => a.accountNumber);
+          const transfer = this.transferService.toTransferSummary(event.transfer, ownAccountNumbers);
+          this.latestTransfers = [transfer, ...this.latestTransfers].slice(0, this.LATEST_TRANSFERS_SIZE);
+          this.addToMonthSummary(transfer);
+          this.processData();
+        }
+        break;
+      case 'resync':
+        this.refreshData();
+        break;
+    }
   }
 
   private setupAutoRefresh(): void {
+    if (this.refreshInterval) return;
+
     this.refreshInterval = window.setInterval(() => {
       this.refreshData();
     }, this.REFRESH_INTERVAL);
@@ -112,13 +158,15 @@ export class DashboardComponent implements OnInit, OnDestroy {
     this.isLoading = true;
     this.hasError = false;
 
-    // Charger les comptes et transferts en parallèle
+    // Charger les comptes, les derniers transferts et les cumuls du mois en parallèle
     const accounts$ = this.accountService.getUserAccounts();
-    const transfers$ = this.transferService.getTransferSummaries();
+    const transfers$ = this.transferService.getRecentTransferSummaries(this.LATEST_TRANSFERS_SIZE);
+    const summary$ = this.transferService.getActivitySummary();
 
     forkJoin({
       accounts: accounts$,
-      transfers: transfers$
+      transfers: transfers$,
+      summary: summary$
     }).pipe(
       takeUntil(this.destroy$),
       finalize(() => {
@@ -126,9 +174,10 @@ export class DashboardComponent implements OnInit, OnDestroy {
         this.isRefreshing = false;
       })
     ).subscribe({
-      next: ({ accounts, transfers }) => {
+      next: ({ accounts, transfers, summary }) => {
         this.accounts = accounts;
-        this.allTransfers = transfers;
+        this.latestTransfers = transfers;
+        this.monthSummary = summary;
         this.processData();
         this.hasError = false;
       },
@@ -154,29 +203,31 @@ export class DashboardComponent implements OnInit, OnDestroy {
     this.stats.accountsCount = this.accounts.length;
 
     // Transferts de ce mois
-    const currentMonth = new Date().getMonth();
-    const currentYear = new Date().getFullYear();
-
-    this.stats.transfersThisMonth = this.allTransfers.filter(transfer => {
-      const transferDate = new Date(transfer.date);
-      return transferDate.getMonth() === currentMonth &&
-        transferDate.getFullYear() === currentYear;
-    }).length;
-
-    // Date de dernière transaction
-    if (this.allTransfers.length > 0) {
-      const sortedTransfers = [...this.allTransfers].sort(
-        (a, b) => new Date(b.date).getTime() - new Date(a.date).getTime()
-      );
-      this.stats.lastTransactionDate = sortedTransfers[0].date;
+    this.stats.transfersThisMonth = this.monthSummary
+      ? this.monthSummary.sentCount + this.monthSummary.receivedCount
+      : 0;
+
+    // Date de dernière transaction (l'historique est trié du plus récent au plus ancien)
+    if (this.latestTransfers.length > 0) {
+      this.stats.lastTransactionDate = this.latestTransfers[0].date;
     }
   }
 
   private prepareRecentTransfers(): void {
-    // Trier les transferts par date décroissante et prendre les 5 premiers
-    this.recentTransfers = [...this.allTransfers]
-      .sort((a, b) => new Date(b.date).getTime() - new Date(a.date).getTime())
-      .slice(0, this.RECENT_TRANSFERS_LIMIT);
+    this.recentTransfers = this.latestTransfers.slice(0, this.RECENT_TRANSFERS_LIMIT);
+  }
+
+  // Transfert poussé en direct : les cumuls sont mis à jour sans recharger le résumé
+  private addToMonthSummary(transfer: TransferSummary): void {
+    if (!this.monthSummary || transfer.status !== TransferStatus.COMPLETED) return;
+
+    if (transfer.type === 'outgoing') {
+      this.monthSummary.sentCount++;
+      this.monthSummary.totalSent += transfer.amount;
+    } else {
+      this.monthSummary.receivedCount++;
+      this.monthSummary.totalReceived += transfer.amount;
+    }
   }
 
   // Méthodes publiques pour l'interface
@@ -298,31 +349,11 @@ export class DashboardComponent implements OnInit, OnDestroy {
   }
 
   getTotalIncomingThisMonth(): number {
-    const currentMonth = new Date().getMonth();
-    const currentYear = new Date().getFullYear();
-
-    return this.allTransfers
-      .filter(transfer => {
-        const transferDate = new Date(transfer.date);
-        return transfer.type === 'incoming' &&
-          transferDate.getMonth() === currentMonth &&
-          transferDate.getFullYear() === currentYear;
-      })
-      .reduce((sum, transfer) => sum + transfer.amount, 0);
+    return this.monthSummary?.totalReceived ?? 0;
   }
 
   getTotalOutgoingThisMonth(): number {
-    const currentMonth = new Date().getMonth();
-    const currentYear = new Date().getFullYear();
-
-    return this.allTransfers
-      .filter(transfer => {
-        const transferDate = new Date(transfer.date);
-        return transfer.type === 'outgoing' &&
-          transferDate.getMonth() === currentMonth &&
-          transferDate.getFullYear() === currentYear;
-      })
-      .reduce((sum, transfer) => sum + transfer.amount, 0);
+    return this.monthSummary?.totalSent ?? 0;
   }
 
   // Gestion d'erreurs
@@ -356,8 +387,10 @@ export class DashboardComponent implements OnInit, OnDestroy {
     }
   }
 
+  // Approximation : destinataire le plus fréquent parmi les LATEST_TRANSFERS_SIZE derniers transferts
+  // seulement, pas sur tout l'historique (les cumuls du serveur ne sont pas ventilés par destinataire)
   private getMostFrequentDestination(): string | null {
-    const outgoingTransfers = this.allTransfers.filter(t => t.type === 'outgoing');
+    const outgoingTransfers = this.latestTransfers.filter(t => t.type === 'outgoing');
 
     if (outgoingTransfers.length === 0) return null;
 
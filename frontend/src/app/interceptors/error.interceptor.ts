@@ -33,6 +33,9 @@ export const errorInterceptor: HttpInterceptorFn = (req, next) => {
         case 422:
           errorMessage = 'Données de validation incorrectes';
           break;
+        case 429:
+          errorMessage = 'Trop de requêtes. Veuillez patienter quelques secondes.';
+          break;
         case 500:
           errorMessage = 'Erreur serveur. Veuillez réessayer plus tard.';
           break;
@@ -1,28 +1,33 @@
-import { HttpInterceptorFn } from '@angular/common/http';
-import { inject } from '@angular/core';
-import { retry, retryWhen, delay, take, concatMap } from 'rxjs/operators';
+import { HttpErrorResponse, HttpInterceptorFn } from '@angular/common/http';
+import { retryWhen, concatMap } from 'rxjs/operators';
 import { throwError, timer } from 'rxjs';
 
 export const retryInterceptor: HttpInterceptorFn = (req, next) => {
-  // Ne retry que certains types de requêtes
-  const shouldRetry = req.method === 'GET' ||
-    req.url.includes('/accounts') ||
-    req.url.includes('/transfers');
+  // Clé générée une fois par transfert : les nouvelles tentatives rejouent la première réponse
+  if (req.method === 'POST' && req.url.includes('/transfers') && !req.headers.has('Idempotency-Key')) {
+    req = req.clone({ setHeaders: { 'Idempotency-Key': crypto.randomUUID() } });
+  }
 
-  if (!shouldRetry) {
+  // Ne retry que les lectures et les écritures protégées par une clé d'idempotence
+  const idempotentWrite = req.method === 'POST' && req.headers.has('Idempotency-Key');
+  if (req.method !== 'GET' && !idempotentWrite) {
     return next(req);
   }
 
   return next(req).pipe(
     retryWhen(errors =>
       errors.pipe(
-        concatMap((error, count) => {
-          // Retry seulement pour certaines erreurs et max 3 fois
-          if (count >= 2 || error.status < 500) {
+        concatMap((error: HttpErrorResponse, count) => {
+          // Retry seulement pour certaines erreurs et max 3 fois ;
+          // une écriture n'est rejouée que si le serveur ne l'a pas traitée (502, 503),
+          // jamais après un 504 (résultat inconnu : la clé rejouerait ce même 504)
+          const retriable = idempotentWrite
+            ? error.status === 502 || error.status === 503
+            : error.status >= 500;
+          if (count >= 2 || !retriable) {
             return throwError(() => error);
           }
 
-          console.log(`Retry attempt ${count + 1} for ${req.url}`);
           return timer(1000 * (count + 1)); // Délai exponentiel
         })
       )
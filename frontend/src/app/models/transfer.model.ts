@@ -35,3 +35,36 @@ export interface TransferSummary {
   displayAmount: string;
   displayDate: string;
 }
+
+export interface TransferPage {
+  items: Transfer[];
+  nextCursor: string | null;
+}
+
+// Cumuls calculés par le serveur (GET /api/transfers/summary) : transferts validés uniquement
+export interface DailyActivity {
+  day: string;
+  sentCount: number;
+  receivedCount: number;
+  totalSent: number;
+  totalReceived: number;
+}
+
+export interface AccountActivity {
+  accountNumber: string;
+  sentCount: number;
+  receivedCount: number;
+  totalSent: number;
+  totalReceived: number;
+}
+
+export interface ActivitySummary {
+  from: string;
+  to: string;
+  sentCount: number;
+  receivedCount: number;
+  totalSent: number;
+  totalReceived: number;
+  days: DailyActivity[];
+  accounts: AccountActivity[];
+}
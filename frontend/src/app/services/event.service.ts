@@ -0,0 +1,70 @@
+import { Injectable, NgZone } from '@angular/core';
+import { Observable } from 'rxjs';
+import { environment } from '../../environments/environment';
+import { Transfer } from '../models/transfer.model';
+import { AuthService } from './auth.service';
+
+export interface BalanceUpdate {
+  accountNumber: string;
+  balance: number;
+}
+
+export type ServerEvent =
+  | { type: 'transfer'; transfer: Transfer }
+  | { type: 'balance'; update: BalanceUpdate }
+  | { type: 'resync' };
+
+@Injectable({
+  providedIn: 'root'
+})
+export class EventService {
+  private apiUrl = environment.apiUrl;
+
+  constructor(
+    private authService: AuthService,
+    private zone: NgZone
+  ) {}
+
+  isSupported(): boolean {
+    return typeof EventSource !== 'undefined';
+  }
+
+  // Flux des événements de l'utilisateur connecté (EventSource se reconnecte automatiquement)
+  events(): Observable<ServerEvent> {
+    return new Observable<ServerEvent>(subscriber => {
+      const token = this.authService.getToken();
+      if (!token || !this.isSupported()) {
+        subscriber.error(new Error('Flux d\'événements indisponible'));
+        return;
+      }
+
+      // EventSource n'accepte pas d'en-tête Authorization : jeton en paramètre
+      const source = new EventSource(`${this.apiUrl}/events?access_token=${encodeURIComponent(token)}`);
+      const emit = (event: ServerEvent) => this.zone.run(() => subscriber.next(event));
+      let reconnecting = false;
+
+      source.addEventListener('transfer', event =>
+        emit({ type: 'transfer', transfer: JSON.parse((event as MessageEvent).data) }));
+      source.addEventListener('balance', event =>
+        emit({ type: 'balance', update: JSON.parse((event as MessageEvent).data) }));
+      source.addEventListener('resync', () => emit({ type: 'resync' }));
+
+      source.onopen = () => {
+        // Des événements ont pu être perdus pendant la coupure
+        if (reconnecting) {
+          reconnecting = false;
+          emit({ type: 'resync' });
+        }
+      };
+      source.onerror = () => {
+        if (source.readyState === EventSource.CLOSED) {
+          this.zone.run(() => subscriber.error(new Error('Flux d\'événements fermé')));
+        } else {
+          reconnecting = true;
+        }
+      };
+
+      return () => source.close();
+    });
+  }
+}
@@ -3,7 +3,7 @@ import { HttpClient } from '@angular/common/http';
 import { Observable, throwError } from 'rxjs';
 import { map, catchError } from 'rxjs/operators';
 import { environment } from '../../environments/environment';
-import { Transfer, TransferRequest, TransferSummary } from '../models/transfer.model';
+import { ActivitySummary, Transfer, TransferPage, TransferRequest, TransferSummary } from '../models/transfer.model';
 import { ApiResponse } from '../models/api-response.model';
 import { AuthService } from './auth.service';
 
@@ -70,10 +70,53 @@ export class TransferService {
     );
   }
 
+  // Première page de l'historique : le coût ne dépend pas de la longueur de l'historique
+  getRecentTransferSummaries(limit: number): Observable<TransferSummary[]> {
+    return this.http.get<ApiResponse<TransferPage>>(`${this.apiUrl}/transfers/page`, { params: { size: limit } })
+      .pipe(
+        map(response => {
+          if (!response.success || !response.data) {
+            throw new Error(response.message || 'Erreur lors de la récupération de l\'historique');
+          }
+          return response.data.items.map(transfer => this.mapToTransferSummary(transfer));
+        }),
+        catchError(error => {
+          return throwError(() => new Error(error.error?.message || 'Erreur lors de la récupération de l\'historique'));
+        })
+      );
+  }
+
+  // Cumuls calculés par le serveur ; dates ISO (AAAA-MM-JJ), par défaut le mois en cours
+  getActivitySummary(from?: string, to?: string): Observable<ActivitySummary> {
+    const params: { [param: string]: string } = {};
+    if (from) params['from'] = from;
+    if (to) params['to'] = to;
+
+    return this.http.get<ApiResponse<ActivitySummary>>(`${this.apiUrl}/transfers/summary`, { params })
+      .pipe(
+        map(response => {
+          if (!response.success || !response.data) {
+            throw new Error(response.message || 'Erreur lors de la récupération du résumé');
+          }
+          return response.data;
+        }),
+        catchError(error => {
+          return throwError(() => new Error(error.error?.message || 'Erreur lors de la récupération du résumé'));
+        })
+      );
+  }
+
+  // Transfert poussé par le serveur : sans titulaires, le sens se déduit des comptes de l'utilisateur
+  toTransferSummary(transfer: Transfer, ownAccountNumbers: string[]): TransferSummary {
+    return this.buildTransferSummary(transfer, ownAccountNumbers.includes(transfer.fromAccount.accountNumber));
+  }
+
   private mapToTransferSummary(transfer: Transfer): TransferSummary {
     const currentUser = this.authService.getCurrentUser();
-    const isOutgoing = transfer.fromAccount.user.id === currentUser?.id;
+    return this.buildTransferSummary(transfer, transfer.fromAccount.user.id === currentUser?.id);
+  }
 
+  private buildTransferSummary(transfer: Transfer, isOutgoing: boolean): TransferSummary {
     return {
       id: transfer.id,
       amount: transfer.amount,
@@ -16,6 +16,7 @@ import { authInterceptor } from './app/interceptors/auth.interceptor';
 import { errorInterceptor } from './app/interceptors/error.interceptor';
 import { loadingInterceptor } from './app/interceptors/loading.interceptor';
 import { cacheInterceptor } from './app/interceptors/cache.interceptor';
+import { retryInterceptor } from './app/interceptors/retry.interceptor';
 
 // Services
 import { AuthService } from './app/services/auth.service';
@@ -36,7 +37,8 @@ bootstrapApplication(AppComponent, {
         loadingInterceptor,
         cacheInterceptor,
         authInterceptor,
-        errorInterceptor
+        errorInterceptor,
+        retryInterceptor
       ])
     ),
 